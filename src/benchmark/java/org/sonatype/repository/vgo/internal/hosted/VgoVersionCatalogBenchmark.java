@@ -0,0 +1,90 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.hosted;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Building the {@code @v/list} of modules from the names of their zips, as done when rebuilding version catalogs,
+ * and writing a list of known versions, as done on every upload.
+ *
+ * @since 0.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VgoVersionCatalogBenchmark
+{
+  private static final String MODULE = "github.com/sonatype/example";
+
+  @Param({"10", "100", "1000"})
+  public int versions;
+
+  private List<String> zipNames;
+
+  private SortedSet<String> sorted;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    zipNames = new ArrayList<>(versions);
+    for (int i = 0; i < versions; i++) {
+      String version = "v" + random.nextInt(3) + "." + random.nextInt(50) + "." + i;
+      switch (random.nextInt(4)) {
+        case 0:
+          version += "-rc." + random.nextInt(5);
+          break;
+        case 1:
+          version = String.format("v0.0.0-%014d-%012x", 20180101000000L + i, random.nextLong() & 0xffffffffffffL);
+          break;
+        default:
+          break;
+      }
+      zipNames.add(MODULE + "/@v/" + version + ".zip");
+    }
+    sorted = VgoVersionCatalog.versionsByModule(zipNames).get(MODULE);
+  }
+
+  @Benchmark
+  public void listFromZipNames(final Blackhole blackhole) {
+    for (Map.Entry<String, SortedSet<String>> module : VgoVersionCatalog.versionsByModule(zipNames).entrySet()) {
+      blackhole.consume(VgoVersionCatalog.list(module.getValue()));
+    }
+  }
+
+  @Benchmark
+  public byte[] listFromCatalog() {
+    return VgoVersionCatalog.list(sorted);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.sonatype.repository.vgo.internal.util.DirHash.ZipHashHandler;
+
+import com.google.common.io.ByteStreams;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.sonatype.repository.vgo.internal.util.CompressedContentExtractor.MAX_GO_MOD_SIZE;
+
+/**
+ * Extracting the module root go.mod from module zips of varying entry count and entry size, through the local file
+ * headers as done for zips being streamed and through the central directory as done for stored zips.
+ *
+ * @since 0.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressedContentExtractorBenchmark
+{
+  private static final String MODULE = "github.com/sonatype/example@v1.0.0/";
+
+  private static final String GO_MOD = MODULE + "go.mod";
+
+  @Param({"10", "1000"})
+  public int entries;
+
+  @Param({"1024", "65536"})
+  public int entrySize;
+
+  private byte[] zip;
+
+  @Setup
+  public void setUp() throws IOException {
+    Random random = new Random(42);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+      for (int i = 0; i < entries; i++) {
+        out.putNextEntry(new ZipEntry(MODULE + "pkg" + (i % 10) + "/file" + i + ".go"));
+        out.write(source(random, entrySize));
+        out.closeEntry();
+      }
+      // go.mod comes last in zips created by the go command, which is the worst case for streaming
+      out.putNextEntry(new ZipEntry(GO_MOD));
+      out.write("module github.com/sonatype/example\n\nrequire github.com/jung-kurt/gofpdf v1.0.2\n".getBytes(UTF_8));
+      out.closeEntry();
+    }
+    zip = bytes.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] extractFromCentralDirectory() throws IOException {
+    try (InputStream in = CompressedContentExtractor.openEntry(new SeekableInMemoryByteChannel(zip), GO_MOD)) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+
+  @Benchmark
+  public boolean streamFromCentralDirectory() throws IOException {
+    try (ZipEntryCapture goMod = new ZipEntryCapture(GO_MOD, MAX_GO_MOD_SIZE)) {
+      return CompressedContentExtractor.extractEntry(new SeekableInMemoryByteChannel(zip), GO_MOD, MAX_GO_MOD_SIZE,
+          goMod);
+    }
+  }
+
+  @Benchmark
+  public String scanWhileStreaming() throws IOException {
+    ZipHashHandler zipHash = new ZipHashHandler();
+    try (ZipEntryCapture goMod = new ZipEntryCapture(GO_MOD, MAX_GO_MOD_SIZE);
+         ZipScanningInputStream in = new ZipScanningInputStream(new ByteArrayInputStream(zip), goMod, zipHash)) {
+      ByteStreams.exhaust(in);
+      return zipHash.getHash();
+    }
+  }
+
+  /**
+   * Go like source text, compressing about as well as real sources do.
+   */
+  private static byte[] source(final Random random, final int size) {
+    String[] words = {"func", "return", "if", "err", "!=", "nil", "{", "}", "package", "import", "string", "int"};
+    StringBuilder text = new StringBuilder(size + 16);
+    while (text.length() < size) {
+      text.append(words[random.nextInt(words.length)]).append(random.nextInt(8) == 0 ? '\n' : ' ');
+    }
+    return text.substring(0, size).getBytes(UTF_8);
+  }
+}
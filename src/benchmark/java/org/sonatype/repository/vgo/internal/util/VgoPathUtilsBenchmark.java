@@ -0,0 +1,75 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+import org.sonatype.repository.vgo.internal.metadata.VgoCoordinates;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building and parsing the asset paths every request goes through.
+ *
+ * @since 0.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VgoPathUtilsBenchmark
+{
+  private final VgoPathUtils pathUtils = new VgoPathUtils();
+
+  public String module = "github.com/sonatype/example";
+
+  public String version = "v1.2.3-0.20180911110000-0123456789ab";
+
+  public String zipPath = "github.com/sonatype/example/@v/v1.2.3-0.20180911110000-0123456789ab.zip";
+
+  @Benchmark
+  public String assetPath() {
+    return VgoCoordinates.of(module, version).zipPath();
+  }
+
+  @Benchmark
+  public String listPath() {
+    return pathUtils.listPath(module);
+  }
+
+  @Benchmark
+  public String goModEntryPath() {
+    return VgoCoordinates.of(module, version).goModEntryPath();
+  }
+
+  @Benchmark
+  public VgoAttributes attributesFromPath() {
+    return pathUtils.attributesFromPath(zipPath, "zip");
+  }
+
+  @Benchmark
+  public String modPathFromZipPath() {
+    return VgoCoordinates.parse(zipPath, "zip").modPath();
+  }
+}
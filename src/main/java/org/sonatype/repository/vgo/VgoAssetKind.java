@@ -27,16 +27,35 @@ public enum VgoAssetKind
   VGO_PACKAGE(CacheControllerHolder.CONTENT),
   VGO_INFO(CacheControllerHolder.METADATA),
   VGO_LIST(CacheControllerHolder.METADATA),
-  VGO_MODULE(CacheControllerHolder.METADATA);
+  VGO_MODULE(CacheControllerHolder.METADATA),
+  VGO_LATEST(CacheControllerHolder.METADATA),
+  VGO_SUMDB(CacheControllerHolder.METADATA),
+  VGO_SUMDB_TILE(CacheControllerHolder.CONTENT, true);
 
   private final CacheType cacheType;
 
+  private final boolean immutable;
+
   VgoAssetKind(final CacheType cacheType) {
+    this(cacheType, false);
+  }
+
+  VgoAssetKind(final CacheType cacheType, final boolean immutable) {
     this.cacheType = cacheType;
+    this.immutable = immutable;
   }
 
   @Nonnull
   public CacheType getCacheType() {
     return cacheType;
   }
+
+  /**
+   * Whether content of this kind never changes once published, so it can be cached forever.
+   *
+   * @since 0.0.3
+   */
+  public boolean isImmutable() {
+    return immutable;
+  }
 }
@@ -0,0 +1,61 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Handler;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.repository.vgo.VgoAssetKind;
+import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.net.HttpHeaders.CACHE_CONTROL;
+
+/**
+ * Marks successful responses for immutable content, that is immutable {@link VgoAssetKind}s and the info, go.mod and
+ * zip of tagged versions, as cacheable forever by clients and intermediate caches.
+ *
+ * @since 0.0.3
+ */
+@Named
+@Singleton
+public class ImmutableContentHandler
+    extends ComponentSupport
+    implements Handler
+{
+  static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+  private final VgoPathUtils vgoPathUtils;
+
+  @Inject
+  public ImmutableContentHandler(final VgoPathUtils vgoPathUtils) {
+    this.vgoPathUtils = checkNotNull(vgoPathUtils);
+  }
+
+  @Nonnull
+  @Override
+  public Response handle(@Nonnull final Context context) throws Exception {
+    Response response = context.proceed();
+    if (response.getStatus().isSuccessful() && context.getAttributes().get(VgoAssetKind.class) != null
+        && vgoPathUtils.isImmutable(context)) {
+      response.getHeaders().set(CACHE_CONTROL, IMMUTABLE);
+    }
+    return response;
+  }
+}
@@ -40,18 +40,26 @@ import org.sonatype.nexus.repository.view.handlers.HandlerContributor
 import org.sonatype.nexus.repository.view.handlers.LastDownloadedHandler
 import org.sonatype.nexus.repository.view.handlers.TimingHandler
 import org.sonatype.nexus.repository.view.matchers.ActionMatcher
+import org.sonatype.nexus.repository.view.matchers.LiteralMatcher
 import org.sonatype.nexus.repository.view.matchers.logic.LogicMatchers
 import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher
 import org.sonatype.repository.vgo.VgoAssetKind
+import org.sonatype.repository.vgo.internal.cache.VgoAssetCacheFacet
+import org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet
+import org.sonatype.repository.vgo.internal.metrics.VgoMetricsHandler
 import org.sonatype.repository.vgo.internal.security.VgoSecurityFacet
 
 import static org.sonatype.nexus.repository.http.HttpMethods.GET
 import static org.sonatype.nexus.repository.http.HttpMethods.HEAD
+import static org.sonatype.nexus.repository.http.HttpMethods.POST
 import static org.sonatype.nexus.repository.http.HttpMethods.PUT
 import static org.sonatype.repository.vgo.VgoAssetKind.VGO_INFO
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_LATEST
 import static org.sonatype.repository.vgo.VgoAssetKind.VGO_LIST
 import static org.sonatype.repository.vgo.VgoAssetKind.VGO_MODULE
 import static org.sonatype.repository.vgo.VgoAssetKind.VGO_PACKAGE
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_SUMDB
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_SUMDB_TILE
 
 /**
  * Support for Vgo recipes.
@@ -74,12 +82,21 @@ abstract class VgoRecipeSupport
   @Inject
   Provider<AttributesFacet> attributesFacet
 
+  @Inject
+  Provider<VgoAssetCacheFacet> assetCacheFacet
+
+  @Inject
+  Provider<VgoMetricsFacet> metricsFacet
+
   @Inject
   ExceptionHandler exceptionHandler
 
   @Inject
   TimingHandler timingHandler
 
+  @Inject
+  VgoMetricsHandler metricsHandler
+
   @Inject
   SecurityHandler securityHandler
 
@@ -119,6 +136,9 @@ abstract class VgoRecipeSupport
   @Inject
   LastDownloadedHandler lastDownloadedHandler
 
+  @Inject
+  ImmutableContentHandler immutableContentHandler
+
   protected VgoRecipeSupport(final Type type, final Format format) {
     super(type, format)
   }
@@ -157,6 +177,17 @@ abstract class VgoRecipeSupport
         }
     )
   }
+
+  /**
+   * Matcher for bulk uploads of module zips
+   */
+  static Matcher bulkUploadMatcher() {
+    LogicMatchers.and(
+        new ActionMatcher(POST),
+        new LiteralMatcher('/@bulk')
+    )
+  }
+
   static Matcher listMatcher() {
     LogicMatchers.and(
         new ActionMatcher(GET, HEAD),
@@ -171,6 +202,51 @@ abstract class VgoRecipeSupport
     )
   }
 
+  /**
+   * Matcher for @latest requests
+   */
+  static Matcher latestMatcher() {
+    LogicMatchers.and(
+        new ActionMatcher(GET, HEAD),
+        new TokenMatcher("/{module:.+}/@latest"),
+        new Matcher() {
+          @Override
+          boolean matches(final Context context) {
+            context.attributes.set(VgoAssetKind.class, VGO_LATEST)
+            return true
+          }
+        }
+    )
+  }
+
+  /**
+   * Matcher for checksum database support, latest signed tree and lookup requests
+   */
+  static Matcher sumdbMatcher() {
+    createSumdbMatcher(VGO_SUMDB, 'supported|latest|lookup/.+')
+  }
+
+  /**
+   * Matcher for checksum database tiles
+   */
+  static Matcher sumdbTileMatcher() {
+    createSumdbMatcher(VGO_SUMDB_TILE, 'tile/.+')
+  }
+
+  static Matcher createSumdbMatcher(final VgoAssetKind assetKind, final String path) {
+    LogicMatchers.and(
+        new ActionMatcher(GET, HEAD),
+        new TokenMatcher("/sumdb/{sumdb:[^/]+}/{path:${path}}"),
+        new Matcher() {
+          @Override
+          boolean matches(final Context context) {
+            context.attributes.set(VgoAssetKind.class, assetKind)
+            return true
+          }
+        }
+    )
+  }
+
   static Matcher createMatcher(final VgoAssetKind assetKind, final String extension) {
     LogicMatchers.and(
         new ActionMatcher(GET, HEAD),
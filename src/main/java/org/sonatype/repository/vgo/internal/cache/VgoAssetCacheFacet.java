@@ -0,0 +1,253 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.common.entity.EntityHelper;
+import org.sonatype.nexus.repository.Facet;
+import org.sonatype.nexus.repository.FacetSupport;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.Bucket;
+import org.sonatype.nexus.repository.storage.StorageTx;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet;
+import org.sonatype.repository.vgo.internal.util.VgoDataAccess;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet.Phase.BLOB_READ;
+import static org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet.Phase.DB_LOOKUP;
+
+/**
+ * Per repository cache of asset lookups by path, sparing the database the queries of hot assets by name. Only read
+ * paths use the cache, assets about to be modified are always looked up in the database. Cached assets are shared and
+ * never handed out to be modified: {@link #findAsset(StorageTx, String)} spares the database entirely, while content
+ * is served from the asset read again by its id, as the asset travels with the content and is marked downloaded and
+ * saved. Serving content thus trades the query by name for a read by id, it does not avoid the database.
+ *
+ * Entries are dropped when the repository saves or deletes the asset, and when an {@code AssetEvent} reports a change
+ * made elsewhere. A content lookup whose cached asset is gone or points to another blob drops the entry, which covers
+ * the window between a commit and its event. A lookup that raced a drop is not cached, so an asset read before a
+ * commit is not cached after the entry was dropped for the commit.
+ *
+ * Hit, miss, eviction and size gauges are registered in the {@code nexus} metric registry under
+ * {@code org.sonatype.repository.vgo.internal.cache.VgoAssetCacheFacet.<repository>}; hits of content lookups still
+ * read the asset by id. Database lookups, by name and by id, and blob reads are recorded in the
+ * {@link VgoMetricsFacet} of the repository.
+ *
+ * @since 0.0.3
+ */
+@Named
+@Facet.Exposed
+public class VgoAssetCacheFacet
+    extends FacetSupport
+{
+  private static final String METRIC_REGISTRY = "nexus";
+
+  /**
+   * Rough fixed cost of a cached asset, its entity metadata and the cache entry.
+   */
+  private static final int ENTRY_OVERHEAD = 512;
+
+  private final VgoDataAccess vgoDataAccess;
+
+  private final Cache<String, Asset> assets;
+
+  private volatile Bucket bucket;
+
+  /**
+   * Incremented before entries are dropped, so lookups racing the drop can tell their asset may be stale.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  private final List<String> metricNames = new ArrayList<>();
+
+  @Inject
+  public VgoAssetCacheFacet(final VgoDataAccess vgoDataAccess,
+                            @Named("${nexus.vgo.assetCache.maxWeight:-10485760}") final long maxWeight)
+  {
+    this.vgoDataAccess = checkNotNull(vgoDataAccess);
+    this.assets = CacheBuilder.newBuilder()
+        .maximumWeight(maxWeight)
+        .weigher((String path, Asset asset) -> weigh(path, asset))
+        .recordStats()
+        .build();
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    super.doStart();
+    register("hits", () -> assets.stats().hitCount());
+    register("misses", () -> assets.stats().missCount());
+    register("evictions", () -> assets.stats().evictionCount());
+    register("size", assets::size);
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    // by name, as the metric names of another repository may start with the metric prefix of this one
+    MetricRegistry registry = SharedMetricRegistries.getOrCreate(METRIC_REGISTRY);
+    metricNames.forEach(registry::remove);
+    metricNames.clear();
+    invalidateAll();
+    super.doStop();
+  }
+
+  private void register(final String name, final Gauge<Long> gauge) {
+    String metricName = MetricRegistry.name(getClass(), getRepository().getName(), name);
+    SharedMetricRegistries.getOrCreate(METRIC_REGISTRY).register(metricName, gauge);
+    metricNames.add(metricName);
+  }
+
+  /**
+   * Returns the bucket of the repository.
+   */
+  public Bucket findBucket(final StorageTx tx) {
+    Bucket result = bucket;
+    if (result == null) {
+      result = bucket = tx.findBucket(getRepository());
+    }
+    return result;
+  }
+
+  /**
+   * Returns the asset at a path, looking it up in the database when it is not cached. The returned asset must not be
+   * modified.
+   */
+  @Nullable
+  public Asset findAsset(final StorageTx tx, final String path) {
+    Asset asset = assets.getIfPresent(path);
+    if (asset == null) {
+      long lookupGeneration = generation.get();
+      long started = System.nanoTime();
+      asset = vgoDataAccess.findAsset(tx, findBucket(tx), path);
+      facet(VgoMetricsFacet.class).update(DB_LOOKUP, started);
+      if (asset != null) {
+        assets.put(path, asset);
+        if (generation.get() != lookupGeneration) {
+          // entries were dropped while looking up, the asset may have been read before the change they were dropped for
+          assets.invalidate(path);
+        }
+      }
+    }
+    return asset;
+  }
+
+  /**
+   * Returns the content of the asset at a path, {@code null} if there is no such asset. The content carries an asset
+   * of its own, read in the transaction, which may be modified.
+   */
+  @Nullable
+  public Content getContent(final StorageTx tx, final String path) {
+    Asset asset = readAsset(tx, path);
+    if (asset == null) {
+      // the asset was deleted since it was cached
+      invalidate(path);
+      asset = readAsset(tx, path);
+      if (asset == null) {
+        return null;
+      }
+    }
+    long started = System.nanoTime();
+    Blob blob = tx.requireBlob(asset.requireBlobRef());
+    facet(VgoMetricsFacet.class).update(BLOB_READ, started);
+    return vgoDataAccess.toContent(asset, blob);
+  }
+
+  /**
+   * Reads the asset at a path by the id of the cached asset, dropping the entry if the asset changed since.
+   */
+  @Nullable
+  private Asset readAsset(final StorageTx tx, final String path) {
+    Asset cached = findAsset(tx, path);
+    if (cached == null) {
+      return null;
+    }
+    long started = System.nanoTime();
+    Asset asset = tx.findAsset(EntityHelper.id(cached), findBucket(tx));
+    facet(VgoMetricsFacet.class).update(DB_LOOKUP, started);
+    if (asset != null && !Objects.equals(asset.blobRef(), cached.blobRef())) {
+      invalidate(path);
+    }
+    return asset;
+  }
+
+  public void invalidate(final String path) {
+    generation.incrementAndGet();
+    assets.invalidate(path);
+  }
+
+  public void invalidate(final Iterable<String> paths) {
+    generation.incrementAndGet();
+    assets.invalidateAll(paths);
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    assets.invalidateAll();
+    bucket = null;
+  }
+
+  @VisibleForTesting
+  CacheStats stats() {
+    return assets.stats();
+  }
+
+  private static int weigh(final String path, final Asset asset) {
+    long weight = ENTRY_OVERHEAD + 2L * path.length() + estimate(asset.attributes().backing());
+    return (int) Math.min(weight, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Estimates the memory taken by nested attributes, counting two bytes per character.
+   */
+  private static long estimate(@Nullable final Object value) {
+    if (value instanceof Map) {
+      long size = 0;
+      for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        size += 32 + estimate(entry.getKey()) + estimate(entry.getValue());
+      }
+      return size;
+    }
+    if (value instanceof Collection) {
+      long size = 0;
+      for (Object element : (Collection<?>) value) {
+        size += 8 + estimate(element);
+      }
+      return size;
+    }
+    if (value instanceof CharSequence) {
+      return 2L * ((CharSequence) value).length();
+    }
+    return 16;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.group;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.common.event.EventAware;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.manager.RepositoryManager;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.AssetEvent;
+import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.repository.storage.AssetEntityAdapter.P_ASSET_KIND;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_LATEST;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_LIST;
+
+/**
+ * Drops merged group answers for a module when the list or latest metadata of the module changes in a member.
+ *
+ * @since 0.0.3
+ */
+@Named
+@Singleton
+public class VgoGroupCacheInvalidator
+    extends ComponentSupport
+    implements EventAware
+{
+  private final RepositoryManager repositoryManager;
+
+  @Inject
+  public VgoGroupCacheInvalidator(final RepositoryManager repositoryManager) {
+    this.repositoryManager = checkNotNull(repositoryManager);
+  }
+
+  @Subscribe
+  @AllowConcurrentEvents
+  public void on(final AssetEvent event) {
+    Asset asset = event.getAsset();
+    String assetKind = asset.formatAttributes().get(P_ASSET_KIND, String.class);
+    if (!VGO_LIST.name().equals(assetKind) && !VGO_LATEST.name().equals(assetKind)) {
+      return;
+    }
+    String module = module(asset.name());
+    if (module == null) {
+      return;
+    }
+    for (Repository repository : repositoryManager.browse()) {
+      repository.optionalFacet(VgoGroupFacet.class).ifPresent(group -> {
+        if (group.leafMemberNames().contains(event.getRepositoryName())) {
+          group.invalidate(module);
+        }
+      });
+    }
+  }
+
+  @Nullable
+  private static String module(final String name) {
+    int separator = name.lastIndexOf(VgoPathUtils.VERSION_SEPARATOR);
+    if (separator > 0) {
+      return name.substring(0, separator);
+    }
+    if (name.endsWith(VgoPathUtils.LATEST_SUFFIX)) {
+      return name.substring(0, name.length() - VgoPathUtils.LATEST_SUFFIX.length());
+    }
+    return null;
+  }
+}
@@ -0,0 +1,280 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.group;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.sonatype.nexus.repository.Facet;
+import org.sonatype.nexus.repository.FacetSupport;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.group.GroupFacet;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Payload;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.Status;
+import org.sonatype.nexus.repository.view.ViewFacet;
+import org.sonatype.nexus.repository.view.payloads.BytesPayload;
+import org.sonatype.repository.vgo.VgoAssetKind;
+import org.sonatype.repository.vgo.internal.util.VgoVersions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.shiro.SecurityUtils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.sonatype.nexus.repository.http.HttpStatus.NOT_FOUND;
+import static org.sonatype.nexus.repository.view.ContentTypes.APPLICATION_JSON;
+import static org.sonatype.nexus.repository.view.ContentTypes.TEXT_PLAIN;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_LATEST;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_LIST;
+
+/**
+ * Answers {@code @v/list} and {@code @latest} requests of vgo group repositories by merging the answers of all members
+ * instead of returning the first hit. Members are queried concurrently, each bounded by a timeout, and merged results
+ * are cached per module until a member changes its list or latest metadata of the module.
+ *
+ * @since 0.0.3
+ */
+@Named
+@Facet.Exposed
+public class VgoGroupFacet
+    extends FacetSupport
+{
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private static final String VERSION = "Version";
+
+  private final int threads;
+
+  private final long memberTimeoutMillis;
+
+  private final Cache<String, byte[]> merged;
+
+  private ThreadPoolExecutor executor;
+
+  @Inject
+  public VgoGroupFacet(@Named("${nexus.vgo.group.threads:-8}") final int threads,
+                       @Named("${nexus.vgo.group.memberTimeoutMillis:-10000}") final long memberTimeoutMillis,
+                       @Named("${nexus.vgo.group.mergedCacheSeconds:-300}") final long mergedCacheSeconds)
+  {
+    checkArgument(threads > 0, "threads must be positive");
+    checkArgument(memberTimeoutMillis > 0, "memberTimeoutMillis must be positive");
+    this.threads = threads;
+    this.memberTimeoutMillis = memberTimeoutMillis;
+    this.merged = CacheBuilder.newBuilder()
+        .expireAfterWrite(mergedCacheSeconds, TimeUnit.SECONDS)
+        .build();
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    super.doStart();
+    executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(threads * 16),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("vgo-group-" + getRepository().getName() + "-%d")
+            .build(),
+        // a saturated pool degrades to querying members on the requesting thread
+        new CallerRunsPolicy());
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    executor.shutdownNow();
+    executor = null;
+    merged.invalidateAll();
+    super.doStop();
+  }
+
+  /**
+   * Returns the merged answer to a {@code @v/list} or {@code @latest} request, {@code null} if no member knows the
+   * module.
+   */
+  @Nullable
+  public Content get(final Context context, final String module) throws Exception {
+    VgoAssetKind assetKind = context.getAttributes().require(VgoAssetKind.class);
+    checkArgument(assetKind == VGO_LIST || assetKind == VGO_LATEST, "Unsupported asset kind %s", assetKind);
+
+    String key = key(module, assetKind);
+    byte[] content = merged.getIfPresent(key);
+    if (content == null) {
+      Map<Repository, byte[]> responses = new LinkedHashMap<>();
+      boolean complete = fetchMembers(context, responses);
+      content = assetKind == VGO_LIST ? mergeLists(responses.values()) : mergeLatest(responses.values());
+      if (content == null) {
+        return null;
+      }
+      if (complete) {
+        merged.put(key, content);
+      }
+    }
+    return new Content(new BytesPayload(content, assetKind == VGO_LIST ? TEXT_PLAIN : APPLICATION_JSON));
+  }
+
+  /**
+   * Drops the merged answers for a module after one of the members changed.
+   */
+  public void invalidate(final String module) {
+    merged.invalidate(key(module, VGO_LIST));
+    merged.invalidate(key(module, VGO_LATEST));
+  }
+
+  /**
+   * Dispatches the request to all members concurrently, collecting the successful responses in member order.
+   *
+   * @return {@code false} if any member failed, answered with an error or timed out, so the result must not be cached
+   */
+  private boolean fetchMembers(final Context context, final Map<Repository, byte[]> responses)
+      throws InterruptedException
+  {
+    Map<Repository, Future<byte[]>> futures = new LinkedHashMap<>();
+    for (Repository member : facet(GroupFacet.class).members()) {
+      Callable<byte[]> fetch = () -> fetch(context, member);
+      futures.put(member, executor.submit(SecurityUtils.getSubject().associateWith(fetch)));
+    }
+
+    boolean complete = true;
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(memberTimeoutMillis);
+    for (Entry<Repository, Future<byte[]>> entry : futures.entrySet()) {
+      try {
+        byte[] content = entry.getValue().get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        if (content != null) {
+          responses.put(entry.getKey(), content);
+        }
+      }
+      catch (TimeoutException e) {
+        log.debug("Member {} of {} timed out", entry.getKey().getName(), getRepository().getName());
+        entry.getValue().cancel(true);
+        complete = false;
+      }
+      catch (ExecutionException e) {
+        log.warn("Member {} of {} failed", entry.getKey().getName(), getRepository().getName(), e.getCause());
+        complete = false;
+      }
+    }
+    return complete;
+  }
+
+  /**
+   * Returns the answer of a member, {@code null} if the member does not know the module.
+   *
+   * @throws IOException if the member answered with an error other than not found
+   */
+  @Nullable
+  @VisibleForTesting
+  static byte[] fetch(final Context context, final Repository member) throws Exception {
+    Response response = member.facet(ViewFacet.class).dispatch(context.getRequest(), context);
+    Status status = response.getStatus();
+    if (status.getCode() == NOT_FOUND) {
+      return null;
+    }
+    if (!status.isSuccessful()) {
+      throw new IOException("Member " + member.getName() + " answered " + status.getCode());
+    }
+    Payload payload = response.getPayload();
+    if (payload == null) {
+      return null;
+    }
+    try (InputStream in = payload.openInputStream()) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+
+  /**
+   * Merges version lists into one list in semantic version order. Case encoded lines are not versions the go command
+   * lists and are dropped.
+   */
+  @Nullable
+  static byte[] mergeLists(final Iterable<byte[]> lists) {
+    SortedSet<String> versions = new TreeSet<>(VgoVersions.SEMVER_ORDER);
+    for (byte[] list : lists) {
+      for (String version : new String(list, UTF_8).split("\n")) {
+        if (!version.trim().isEmpty() && VgoVersions.isDecoded(version)) {
+          versions.add(version.trim());
+        }
+      }
+    }
+    if (versions.isEmpty()) {
+      return null;
+    }
+    return String.join("\n", versions).getBytes(UTF_8);
+  }
+
+  /**
+   * Picks the info naming the version {@code @latest} resolves to among the versions named by all infos.
+   */
+  @Nullable
+  static byte[] mergeLatest(final Iterable<byte[]> infos) {
+    Map<String, byte[]> byVersion = new LinkedHashMap<>();
+    for (byte[] info : infos) {
+      String version = version(info);
+      if (version != null && VgoVersions.isDecoded(version)) {
+        byVersion.putIfAbsent(version, info);
+      }
+    }
+    String latest = VgoVersions.latest(new ArrayList<>(byVersion.keySet()));
+    return latest != null ? byVersion.get(latest) : null;
+  }
+
+  @Nullable
+  private static String version(final byte[] info) {
+    try {
+      Object version = MAPPER.readValue(info, Map.class).get(VERSION);
+      return version instanceof String ? (String) version : null;
+    }
+    catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static String key(final String module, final VgoAssetKind assetKind) {
+    return assetKind.name() + ':' + module;
+  }
+
+  /**
+   * Returns the names of the leaf members of this group.
+   */
+  List<String> leafMemberNames() {
+    List<String> names = new ArrayList<>();
+    for (Repository member : facet(GroupFacet.class).leafMembers()) {
+      names.add(member.getName());
+    }
+    return names;
+  }
+}
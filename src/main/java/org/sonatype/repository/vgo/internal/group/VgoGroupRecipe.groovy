@@ -51,9 +51,15 @@ class VgoGroupRecipe
   @Inject
   Provider<GroupFacetImpl> groupFacet
 
+  @Inject
+  Provider<VgoGroupFacet> vgoGroupFacet
+
   @Inject
   GroupHandler groupHandler
 
+  @Inject
+  VgoGroupMergingHandler mergingHandler
+
   @Inject
   VgoGroupRecipe(@Named(GroupType.NAME) final Type type,
                  @Named(VgoFormat.NAME) final Format format)
@@ -64,6 +70,8 @@ class VgoGroupRecipe
   @Override
   void apply(@Nonnull final Repository repository) throws Exception {
     repository.attach(groupFacet.get())
+    repository.attach(vgoGroupFacet.get())
+    repository.attach(metricsFacet.get())
     repository.attach(storageFacet.get())
     repository.attach(securityFacet.get())
     repository.attach(configure(viewFacet.get()))
@@ -76,9 +84,10 @@ class VgoGroupRecipe
   private ViewFacet configure(final ConfigurableViewFacet facet) {
     Router.Builder builder = new Router.Builder()
 
-    [infoMatcher(), packageMatcher(), moduleMatcher(), listMatcher()].each { matcher ->
+    [infoMatcher(), packageMatcher(), moduleMatcher()].each { matcher ->
       builder.route(new Route.Builder().matcher(matcher)
           .handler(timingHandler)
+          .handler(metricsHandler)
           .handler(securityHandler)
           .handler(exceptionHandler)
           .handler(handlerContributor)
@@ -86,6 +95,17 @@ class VgoGroupRecipe
           .create())
     }
 
+    [listMatcher(), latestMatcher()].each { matcher ->
+      builder.route(new Route.Builder().matcher(matcher)
+          .handler(timingHandler)
+          .handler(metricsHandler)
+          .handler(securityHandler)
+          .handler(exceptionHandler)
+          .handler(handlerContributor)
+          .handler(mergingHandler)
+          .create())
+    }
+
     builder.route(new Route.Builder()
         .matcher(BrowseUnsupportedHandler.MATCHER)
         .handler(browseUnsupportedHandler)
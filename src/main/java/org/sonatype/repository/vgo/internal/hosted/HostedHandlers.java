@@ -12,6 +12,8 @@
  */
 package org.sonatype.repository.vgo.internal.hosted;
 
+import java.util.List;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -20,13 +22,16 @@ import org.sonatype.goodies.common.ComponentSupport;
 import org.sonatype.nexus.repository.view.Content;
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.Handler;
-import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
 import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher.State;
+import org.sonatype.nexus.repository.view.payloads.BytesPayload;
 import org.sonatype.repository.vgo.VgoAssetKind;
-import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+import org.sonatype.repository.vgo.internal.metadata.VgoCoordinates;
 import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.repository.view.ContentTypes.APPLICATION_JSON;
 import static org.sonatype.nexus.repository.http.HttpResponses.created;
 import static org.sonatype.nexus.repository.http.HttpResponses.notFound;
 import static org.sonatype.nexus.repository.http.HttpResponses.ok;
@@ -36,6 +41,8 @@ import static org.sonatype.nexus.repository.http.HttpResponses.ok;
 public class HostedHandlers
     extends ComponentSupport
 {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
   private VgoPathUtils pathUtils;
 
   @Inject
@@ -59,6 +66,9 @@ public class HostedHandlers
       case VGO_LIST:
         content = getList(context);
         break;
+      case VGO_LATEST:
+        content = getLatest(context);
+        break;
     }
 
     return (content != null) ? ok(content) : notFound();
@@ -70,34 +80,41 @@ public class HostedHandlers
     return context.getRepository().facet(VgoHostedFacet.class).getList(module);
   }
 
-  private Content getPackage(final Context context) {
+  private Content getLatest(final Context context) {
     State state = context.getAttributes().require(State.class);
-    String path = pathUtils.assetPath(state);
+    String module = pathUtils.module(state);
+    return context.getRepository().facet(VgoHostedFacet.class).getLatest(module);
+  }
+
+  private Content getPackage(final Context context) {
+    String path = pathUtils.coordinates(context).zipPath();
     return context.getRepository().facet(VgoHostedFacet.class).getPackage(path);
   }
 
   private Content getModule(final Context context) {
-    State state = context.getAttributes().require(State.class);
-    String path = pathUtils.assetPath(state);
+    String path = pathUtils.coordinates(context).modPath();
     return context.getRepository().facet(VgoHostedFacet.class).getMod(path);
   }
 
   private Content getInfo(final Context context) {
-    State state = context.getAttributes().require(State.class);
-    String path = pathUtils.assetPath(state);
-    VgoAttributes vgoAttributes = pathUtils.getAttributesFromMatcherState(state);
-    return context.getRepository().facet(VgoHostedFacet.class).getInfo(path, vgoAttributes);
+    VgoCoordinates coordinates = pathUtils.coordinates(context);
+    return context.getRepository().facet(VgoHostedFacet.class)
+        .getInfo(coordinates.infoPath(), coordinates.toAttributes());
   }
 
   final Handler upload = context -> {
-    State state = context.getAttributes().require(TokenMatcher.State.class);
-    String path = pathUtils.assetPath(state);
-    VgoAttributes vgoAttributes = pathUtils.getAttributesFromMatcherState(state);
+    VgoCoordinates coordinates = pathUtils.coordinates(context);
 
     VgoAssetKind assetKind = context.getAttributes().require(VgoAssetKind.class);
     context.getRepository().facet(VgoHostedFacet.class)
-        .upload(path, vgoAttributes, context.getRequest().getPayload(), assetKind);
+        .upload(coordinates.zipPath(), coordinates.toAttributes(), context.getRequest().getPayload(), assetKind);
 
     return created();
   };
+
+  final Handler bulkUpload = context -> {
+    List<VgoUploadResult> results = context.getRepository().facet(VgoHostedFacet.class)
+        .uploadBulk(context.getRequest().getPayload());
+    return ok(new Content(new BytesPayload(MAPPER.writeValueAsBytes(results), APPLICATION_JSON)));
+  };
 }
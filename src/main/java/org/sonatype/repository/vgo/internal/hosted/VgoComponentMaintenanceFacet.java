@@ -0,0 +1,100 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.hosted;
+
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.sonatype.nexus.common.entity.EntityId;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.Bucket;
+import org.sonatype.nexus.repository.storage.Component;
+import org.sonatype.nexus.repository.storage.DefaultComponentMaintenanceImpl;
+import org.sonatype.nexus.repository.storage.StorageTx;
+import org.sonatype.nexus.repository.transaction.TransactionalDeleteBlob;
+import org.sonatype.nexus.transaction.UnitOfWork;
+import org.sonatype.repository.vgo.internal.cache.VgoAssetCacheFacet;
+import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.repository.storage.AssetEntityAdapter.P_ASSET_KIND;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_PACKAGE;
+
+/**
+ * Vgo hosted component maintenance, keeping the {@link VgoVersionCatalog} and the {@link VgoAssetCacheFacet} in step
+ * with deletions.
+ *
+ * @since 0.0.3
+ */
+@Named
+public class VgoComponentMaintenanceFacet
+    extends DefaultComponentMaintenanceImpl
+{
+  private final VgoVersionCatalog versionCatalog;
+
+  private final VgoPathUtils pathUtils;
+
+  @Inject
+  public VgoComponentMaintenanceFacet(final VgoVersionCatalog versionCatalog, final VgoPathUtils pathUtils) {
+    this.versionCatalog = checkNotNull(versionCatalog);
+    this.pathUtils = checkNotNull(pathUtils);
+  }
+
+  @Override
+  @TransactionalDeleteBlob
+  protected Set<String> deleteComponentTx(final EntityId componentId, final boolean deleteBlobs) {
+    StorageTx tx = UnitOfWork.currentTx();
+    Bucket bucket = tx.findBucket(getRepository());
+    Component component = tx.findComponentInBucket(componentId, bucket);
+
+    Set<String> deletedAssets = super.deleteComponentTx(componentId, deleteBlobs);
+
+    if (component != null) {
+      versionCatalog.removeVersion(tx, bucket, component.name(), component.version());
+      invalidate(deletedAssets, component.name());
+    }
+    return deletedAssets;
+  }
+
+  @Override
+  @TransactionalDeleteBlob
+  protected Set<String> deleteAssetTx(final EntityId assetId, final boolean deleteBlob) {
+    StorageTx tx = UnitOfWork.currentTx();
+    Bucket bucket = tx.findBucket(getRepository());
+    Asset asset = tx.findAsset(assetId, bucket);
+    Component component = null;
+    if (asset != null && asset.componentId() != null
+        && VGO_PACKAGE.name().equals(asset.formatAttributes().get(P_ASSET_KIND))) {
+      component = tx.findComponentInBucket(asset.componentId(), bucket);
+    }
+
+    Set<String> deletedAssets = super.deleteAssetTx(assetId, deleteBlob);
+
+    if (component != null) {
+      versionCatalog.removeVersion(tx, bucket, component.name(), component.version());
+      invalidate(deletedAssets, component.name());
+    }
+    else {
+      facet(VgoAssetCacheFacet.class).invalidate(deletedAssets);
+    }
+    return deletedAssets;
+  }
+
+  private void invalidate(final Set<String> deletedAssets, final String module) {
+    VgoAssetCacheFacet assetCache = facet(VgoAssetCacheFacet.class);
+    assetCache.invalidate(deletedAssets);
+    assetCache.invalidate(pathUtils.listPath(module));
+  }
+}
@@ -13,6 +13,7 @@
 package org.sonatype.repository.vgo.internal.hosted;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.sonatype.nexus.repository.Facet;
 import org.sonatype.nexus.repository.Facet.Exposed;
@@ -33,6 +34,29 @@ public interface VgoHostedFacet
 
   Content getList(final String module);
 
+  /**
+   * Returns the info of the version {@code @latest} resolves to.
+   *
+   * @since 0.0.3
+   */
+  Content getLatest(final String module);
+
+  /**
+   * Rebuilds the version catalog of every module from the stored zips.
+   *
+   * @since 0.0.3
+   */
+  void rebuildVersionCatalog();
+
   void upload(final String path, final VgoAttributes vgoAttributes, final Payload payload, final VgoAssetKind assetKind)
       throws IOException;
+
+  /**
+   * Stores the module zips of a tar stream, named by their path in the repository, e.g.
+   * {@code github.com/sonatype/example/@v/v1.0.0.zip}.
+   *
+   * @return the result of every zip, in stream order
+   * @since 0.0.3
+   */
+  List<VgoUploadResult> uploadBulk(final Payload payload) throws IOException;
 }
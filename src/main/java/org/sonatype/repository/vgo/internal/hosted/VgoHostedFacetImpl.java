@@ -12,48 +12,100 @@
  */
 package org.sonatype.repository.vgo.internal.hosted;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
 
-import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.BlobId;
 import org.sonatype.nexus.repository.FacetSupport;
 import org.sonatype.nexus.repository.config.Configuration;
+import org.sonatype.nexus.repository.config.ConfigurationFacet;
+import org.sonatype.nexus.repository.security.SecurityFacet;
 import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.Bucket;
+import org.sonatype.nexus.repository.storage.Component;
 import org.sonatype.nexus.repository.storage.StorageFacet;
 import org.sonatype.nexus.repository.storage.StorageTx;
 import org.sonatype.nexus.repository.storage.TempBlob;
+import org.sonatype.nexus.repository.transaction.TransactionalStoreBlob;
 import org.sonatype.nexus.repository.transaction.TransactionalTouchBlob;
 import org.sonatype.nexus.repository.view.Content;
 import org.sonatype.nexus.repository.view.Payload;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.payloads.BytesPayload;
 import org.sonatype.nexus.repository.view.payloads.StreamPayload;
-import org.sonatype.nexus.repository.view.payloads.StreamPayload.InputStreamSupplier;
 import org.sonatype.nexus.transaction.Transactional;
 import org.sonatype.nexus.transaction.UnitOfWork;
 import org.sonatype.repository.vgo.VgoAssetKind;
+import org.sonatype.repository.vgo.internal.cache.VgoAssetCacheFacet;
 import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+import org.sonatype.repository.vgo.internal.metadata.VgoCoordinates;
 import org.sonatype.repository.vgo.internal.metadata.VgoInfo;
-import org.sonatype.repository.vgo.internal.util.CompressedContentExtractor;
+import org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet;
+import org.sonatype.repository.vgo.internal.util.DirHash;
+import org.sonatype.repository.vgo.internal.util.DirHash.ZipHashHandler;
+import org.sonatype.repository.vgo.internal.util.ReopeningSeekableByteChannel;
+import org.sonatype.repository.vgo.internal.util.VgoCaseEncoding;
 import org.sonatype.repository.vgo.internal.util.VgoDataAccess;
+import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+import org.sonatype.repository.vgo.internal.util.ZipEntryCapture;
+import org.sonatype.repository.vgo.internal.util.ZipScanningInputStream;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.http.impl.io.EmptyInputStream;
+import org.apache.shiro.authz.AuthorizationException;
+import org.joda.time.DateTime;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.sonatype.nexus.repository.storage.AssetEntityAdapter.P_ASSET_KIND;
+import static org.sonatype.nexus.repository.http.HttpMethods.PUT;
 import static org.sonatype.nexus.repository.view.ContentTypes.APPLICATION_JSON;
 import static org.sonatype.nexus.repository.view.ContentTypes.TEXT_PLAIN;
 import static org.sonatype.nexus.repository.view.Payload.UNKNOWN_SIZE;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_INFO;
 import static org.sonatype.repository.vgo.VgoAssetKind.VGO_MODULE;
 import static org.sonatype.repository.vgo.VgoAssetKind.VGO_PACKAGE;
+import static org.sonatype.repository.vgo.internal.metadata.VgoAttributes.P_H1;
+import static org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet.Phase.ZIP_EXTRACTION;
+import static org.sonatype.repository.vgo.internal.util.CompressedContentExtractor.MAX_GO_MOD_SIZE;
+import static org.sonatype.repository.vgo.internal.util.CompressedContentExtractor.entrySize;
+import static org.sonatype.repository.vgo.internal.util.CompressedContentExtractor.extractEntry;
+import static org.sonatype.repository.vgo.internal.util.CompressedContentExtractor.openEntry;
 import static org.sonatype.repository.vgo.internal.util.VgoDataAccess.HASH_ALGORITHMS;
 
 /**
@@ -66,18 +118,131 @@ public class VgoHostedFacetImpl
     extends FacetSupport
     implements VgoHostedFacet
 {
+  static final String CONFIG_KEY = "vgo";
+
   private static final ObjectMapper MAPPER = new ObjectMapper();
 
+  /**
+   * How long stopping waits for queued derivations to complete, before dropping the rest.
+   */
+  private static final long DERIVATION_DRAIN_SECONDS = 30;
+
   private final VgoDataAccess vgoDataAccess;
 
+  private final VgoVersionCatalog versionCatalog;
+
+  private final VgoPathUtils pathUtils;
+
+  private final int bulkThreads;
+
+  private final int bulkBatchSize;
+
+  private final int derivationThreads;
+
+  private final int derivationQueueSize;
+
+  private Config vgoConfig;
+
+  private ThreadPoolExecutor executor;
+
+  private ThreadPoolExecutor derivation;
+
+  /**
+   * vgo hosted specific configuration.
+   *
+   * @since 0.0.3
+   */
+  @VisibleForTesting
+  static class Config
+  {
+    /**
+     * Whether an upload is acknowledged once the zip is stored, deriving go.mod, info and hashes in the background.
+     * Until then go.mod and info are derived on demand from the zip.
+     */
+    public boolean asyncDerivation;
+
+    @Override
+    public String toString() {
+      return getClass().getSimpleName() + "{" +
+          "asyncDerivation=" + asyncDerivation +
+          '}';
+    }
+  }
+
   @Override
   protected void doInit(final Configuration configuration) throws Exception {
     super.doInit(configuration);
   }
 
+  @Override
+  protected void doValidate(final Configuration configuration) throws Exception {
+    super.doValidate(configuration);
+    facet(ConfigurationFacet.class).validateSection(configuration, CONFIG_KEY, Config.class);
+  }
+
+  @Override
+  protected void doConfigure(final Configuration configuration) throws Exception {
+    super.doConfigure(configuration);
+    vgoConfig = facet(ConfigurationFacet.class).readSection(configuration, CONFIG_KEY, Config.class);
+    log.debug("vgo config: {}", vgoConfig);
+  }
+
+  @Override
+  protected void doDestroy() throws Exception {
+    vgoConfig = null;
+    super.doDestroy();
+  }
+
   @Inject
-  public VgoHostedFacetImpl(final VgoDataAccess vgoDataAccess) {
+  public VgoHostedFacetImpl(final VgoDataAccess vgoDataAccess,
+                            final VgoVersionCatalog versionCatalog,
+                            final VgoPathUtils pathUtils,
+                            @Named("${nexus.vgo.bulk.threads:-4}") final int bulkThreads,
+                            @Named("${nexus.vgo.bulk.batchSize:-50}") final int bulkBatchSize,
+                            @Named("${nexus.vgo.derivation.threads:-2}") final int derivationThreads,
+                            @Named("${nexus.vgo.derivation.queueSize:-1000}") final int derivationQueueSize)
+  {
+    checkArgument(bulkThreads > 0, "bulkThreads must be positive");
+    checkArgument(bulkBatchSize > 0, "bulkBatchSize must be positive");
+    checkArgument(derivationThreads > 0, "derivationThreads must be positive");
+    checkArgument(derivationQueueSize > 0, "derivationQueueSize must be positive");
     this.vgoDataAccess = checkNotNull(vgoDataAccess);
+    this.versionCatalog = checkNotNull(versionCatalog);
+    this.pathUtils = checkNotNull(pathUtils);
+    this.bulkThreads = bulkThreads;
+    this.bulkBatchSize = bulkBatchSize;
+    this.derivationThreads = derivationThreads;
+    this.derivationQueueSize = derivationQueueSize;
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    super.doStart();
+    executor = new ThreadPoolExecutor(bulkThreads, bulkThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("vgo-bulk-" + getRepository().getName() + "-%d")
+            .build());
+    executor.allowCoreThreadTimeOut(true);
+    // a full queue makes uploads derive their metadata themselves
+    derivation = new ThreadPoolExecutor(derivationThreads, derivationThreads, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(derivationQueueSize),
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("vgo-derivation-" + getRepository().getName() + "-%d").build());
+    derivation.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    executor.shutdown();
+    executor = null;
+    // queued derivations get some time to complete, as the h1 hashes of zips whose derivation is dropped stay unset
+    derivation.shutdown();
+    if (!derivation.awaitTermination(DERIVATION_DRAIN_SECONDS, TimeUnit.SECONDS)) {
+      List<Runnable> dropped = derivation.shutdownNow();
+      log.warn("Dropped {} pending derivations of {}, their go.mod and info are derived on demand, their h1 hashes "
+          + "stay unset", dropped.size(), getRepository().getName());
+    }
+    derivation = null;
+    super.doStop();
   }
 
   @Override
@@ -87,9 +252,18 @@ public class VgoHostedFacetImpl
                          final VgoAttributes vgoAttributes)
   {
     checkNotNull(path);
-    String newPath = getZipAssetPathFromInfoPath(path);
+    return findInfo(path, vgoAttributes);
+  }
+
+  @Nullable
+  private Content findInfo(final String path, final VgoAttributes vgoAttributes) {
+    Content info = facet(VgoAssetCacheFacet.class).getContent(UnitOfWork.currentTx(), path);
+    if (info != null) {
+      return info;
+    }
 
-    StreamPayload streamPayload = extractInfoFromZip(vgoAttributes, newPath);
+    // zips uploaded before their info was stored along with them
+    StreamPayload streamPayload = extractInfoFromZip(vgoAttributes, VgoCoordinates.of(vgoAttributes).zipPath());
     if (streamPayload == null) {
       return null;
     }
@@ -99,7 +273,7 @@ public class VgoHostedFacetImpl
   private StreamPayload extractInfoFromZip(final VgoAttributes vgoAttributes, final String newPath) {
     StorageTx tx = UnitOfWork.currentTx();
 
-    Asset asset = vgoDataAccess.findAsset(tx, tx.findBucket(getRepository()), newPath);
+    Asset asset = facet(VgoAssetCacheFacet.class).findAsset(tx, newPath);
     if (asset == null) {
       return null;
     }
@@ -111,10 +285,7 @@ public class VgoHostedFacetImpl
     return streamPayload;
   }
 
-  private String getZipAssetPathFromInfoPath(final String path) {
-    return path.replaceAll("\\.info", "\\.zip");
-  }
-
+  @Nullable
   @Transactional
   @Override
   public Content getList(final String module) {
@@ -122,49 +293,75 @@ public class VgoHostedFacetImpl
 
     StorageTx tx = UnitOfWork.currentTx();
 
-    Iterable<Asset> assetsForModule = vgoDataAccess.findAssetsForModule(tx, getRepository(), module);
+    return versionCatalog.getList(facet(VgoAssetCacheFacet.class).findAsset(tx, pathUtils.listPath(module)));
+  }
 
-    List<String> collection = StreamSupport.stream(assetsForModule.spliterator(), false)
-        .filter(asset -> VGO_PACKAGE.name().equals(asset.formatAttributes().get(P_ASSET_KIND)))
-        .map(Asset::name)
-        .map(name -> name.split("/@v/")[1])
-        .map((name -> name.replaceAll(".zip", "")))
-        .collect(Collectors.toList());
+  @Nullable
+  @Transactional
+  @Override
+  public Content getLatest(final String module) {
+    checkNotNull(module);
+
+    StorageTx tx = UnitOfWork.currentTx();
 
-    if (collection.isEmpty()) {
+    String latest = versionCatalog.getLatest(facet(VgoAssetCacheFacet.class).findAsset(tx, pathUtils.listPath(module)));
+    if (latest == null) {
       return null;
     }
 
-    String listOfVersions = String.join("\n", collection);
+    VgoAttributes vgoAttributes = new VgoAttributes();
+    vgoAttributes.setModule(module);
+    vgoAttributes.setVersion(latest);
 
-    return new Content(
-        new StreamPayload(
-            new InputStreamSupplier()
-            {
-              @Nonnull
-              @Override
-              public InputStream get() {
-                return new ByteArrayInputStream(listOfVersions.getBytes());
-              }
-            },
-            UNKNOWN_SIZE,
-            TEXT_PLAIN
-        )
-    );
+    return findInfo(VgoCoordinates.of(module, latest).infoPath(), vgoAttributes);
+  }
+
+  /**
+   * Rebuilds the catalogs in a transaction per page of modules collected and per module rebuilt, so the rebuild of a
+   * large repository neither needs one huge transaction nor blocks uploads for its whole duration.
+   */
+  @Override
+  public void rebuildVersionCatalog() {
+    Set<String> modules = new TreeSet<>();
+    String after = "";
+    while (after != null) {
+      after = collectModules(after, modules);
+    }
+    for (String module : modules) {
+      rebuildVersionCatalog(module);
+    }
+    facet(VgoAssetCacheFacet.class).invalidateAll();
+  }
+
+  @Nullable
+  @Transactional
+  protected String collectModules(final String after, final Set<String> modules) {
+    return versionCatalog.collectModules(UnitOfWork.currentTx(), getRepository(), after, modules);
+  }
+
+  @Transactional
+  protected void rebuildVersionCatalog(final String module) {
+    versionCatalog.rebuild(UnitOfWork.currentTx(), getRepository(), module);
   }
 
   private InputStream doGetInfo(final Asset asset, final VgoAttributes vgoAttributes) {
-    VgoInfo vgoInfo = new VgoInfo(vgoAttributes.getVersion(), asset.blobCreated().toString());
     try {
-      String info = MAPPER.writeValueAsString(vgoInfo);
-      return new ByteArrayInputStream(info.getBytes());
+      return new ByteArrayInputStream(infoJson(vgoAttributes.getVersion(), asset.blobCreated()));
     }
     catch (JsonProcessingException e) {
-      log.warn(String.format("Unable to convert %s to json", vgoInfo.toString()), e);
+      log.warn(String.format("Unable to convert info of %s to json", vgoAttributes.getVersion()), e);
     }
     return EmptyInputStream.INSTANCE;
   }
 
+  /**
+   * Builds the info of a version, giving the version as the go command knows it rather than case encoded.
+   */
+  @VisibleForTesting
+  static byte[] infoJson(final String version, final DateTime time) throws JsonProcessingException {
+    return MAPPER.writeValueAsBytes(new VgoInfo(VgoCaseEncoding.decodeLeniently(version), time.toString()));
+  }
+
   @Nullable
   @TransactionalTouchBlob
   @Override
@@ -176,19 +373,50 @@ public class VgoHostedFacetImpl
   @TransactionalTouchBlob
   @Override
   public Content getMod(final String path) {
-    return doGet(path);
+    Content mod = doGet(path);
+    return mod != null ? mod : extractModFromZip(path);
   }
 
-  private Content doGet(final String path) {
-    checkNotNull(path);
+  /**
+   * Serves the go.mod of a zip whose metadata was not derived yet straight from the zip.
+   */
+  @Nullable
+  private Content extractModFromZip(final String path) {
+    VgoCoordinates coordinates = VgoCoordinates.parse(path, "mod");
+    if (coordinates == null) {
+      return null;
+    }
     StorageTx tx = UnitOfWork.currentTx();
+    Asset zip = facet(VgoAssetCacheFacet.class).findAsset(tx, coordinates.zipPath());
+    if (zip == null) {
+      return null;
+    }
 
-    Asset asset = vgoDataAccess.findAsset(tx, tx.findBucket(getRepository()), path);
-    if (asset == null) {
+    Blob blob = tx.requireBlob(zip.requireBlobRef());
+    long zipSize = blob.getMetrics().getContentSize();
+    String goModEntryPath = coordinates.goModEntryPath();
+    try {
+      long started = System.nanoTime();
+      long size = entrySize(new ReopeningSeekableByteChannel(blob::getInputStream, zipSize), goModEntryPath,
+          MAX_GO_MOD_SIZE);
+      facet(VgoMetricsFacet.class).update(VGO_PACKAGE, ZIP_EXTRACTION, started);
+      if (size < 0) {
+        return null;
+      }
+      return new Content(new StreamPayload(
+          () -> openEntry(new ReopeningSeekableByteChannel(blob::getInputStream, zipSize), goModEntryPath),
+          size,
+          TEXT_PLAIN));
+    }
+    catch (IOException e) {
+      log.warn("Unable to extract go.mod from {}", zip.name(), e);
       return null;
     }
+  }
 
-    return vgoDataAccess.toContent(asset, tx.requireBlob(asset.requireBlobRef()));
+  private Content doGet(final String path) {
+    checkNotNull(path);
+    return facet(VgoAssetCacheFacet.class).getContent(UnitOfWork.currentTx(), path);
   }
 
   @Override
@@ -204,58 +432,570 @@ public class VgoHostedFacetImpl
       throw new IllegalArgumentException("Unsupported AssetKind");
     }
 
-    storeContent(path, vgoAttributes, payload, assetKind);
+    storeContent(path, vgoAttributes, payload);
   }
 
+  /**
+   * Stores the uploaded zip, extracting the module root go.mod from the zip and computing the {@code h1:} hashes while
+   * it is being stored, so the zip is read only once. Zip, go.mod and info are committed together, so all of them are
+   * served from stored assets with a known size, checksums and last modified date. The go.mod is spooled to disk
+   * rather than buffered, so the heap used per upload does not depend on its size.
+   */
   private void storeContent(final String path,
                             final VgoAttributes vgoAttributes,
-                            final Payload payload,
-                            final VgoAssetKind assetKind) throws IOException
+                            final Payload payload) throws IOException
   {
-    StorageFacet storageFacet = facet(StorageFacet.class);
-    try (TempBlob tempBlob = storageFacet.createTempBlob(payload.openInputStream(), HASH_ALGORITHMS)) {
-      vgoDataAccess.doCreateOrSaveComponent(getRepository(), vgoAttributes, path, tempBlob, payload, assetKind);
+    if (vgoConfig.asyncDerivation) {
+      storeZip(path, vgoAttributes, payload);
+      return;
     }
 
-    extractAndSaveMod(path, vgoAttributes);
+    String goModEntryPath = VgoCoordinates.of(vgoAttributes).goModEntryPath();
+    ZipHashHandler zipHash = new ZipHashHandler();
+
+    try (ZipEntryCapture goMod = new ZipEntryCapture(goModEntryPath, MAX_GO_MOD_SIZE)) {
+      VgoUpload upload;
+      try (ZipScanningInputStream in = new ZipScanningInputStream(payload.openInputStream(), goMod, zipHash)) {
+        TempBlob zipBlob = facet(StorageFacet.class).createTempBlob(in, HASH_ALGORITHMS);
+        upload = prepare(path, vgoAttributes, payload, zipBlob, in.isScanned() ? zipHash : null, goMod);
+      }
+      try (VgoUpload saved = upload) {
+        save(Collections.singletonList(saved));
+      }
+    }
   }
 
-  private void extractAndSaveMod(final String path, final VgoAttributes vgoAttributes) {
-    Payload content = getZip(path);
+  /**
+   * Stores the uploaded zip only, leaving the go.mod, info and {@code h1:} hashes to be derived in the background.
+   * Metadata stored for an earlier upload of the same version is removed, so it is not served for the new zip.
+   */
+  private void storeZip(final String path,
+                        final VgoAttributes vgoAttributes,
+                        final Payload payload) throws IOException
+  {
+    try (TempBlob zipBlob = facet(StorageFacet.class).createTempBlob(payload, HASH_ALGORITHMS)) {
+      Set<String> changed = new HashSet<>();
+      BlobId blobId;
+      try {
+        blobId = saveZip(path, vgoAttributes, zipBlob, payload, changed);
+      }
+      finally {
+        facet(VgoAssetCacheFacet.class).invalidate(changed);
+      }
+      Runnable derive = () -> deriveInBackground(path, vgoAttributes, blobId);
+      try {
+        derivation.execute(derive);
+      }
+      catch (RejectedExecutionException e) {
+        log.debug("Derivation queue of {} is full, deriving metadata of {} now", getRepository().getName(), path);
+        deriveOrWarn(path, vgoAttributes, blobId);
+      }
+    }
+  }
 
-    if (content != null) {
-      try (InputStream contentStream = content.openInputStream()) {
-        InputStream goModStream = CompressedContentExtractor.extractFile(contentStream, "go.mod");
+  /**
+   * Saves a zip, collecting the paths of the assets it changed, which callers drop from the asset cache once the
+   * transaction is committed.
+   */
+  @TransactionalStoreBlob
+  protected BlobId saveZip(final String path,
+                           final VgoAttributes vgoAttributes,
+                           final TempBlob zipBlob,
+                           final Payload payload,
+                           final Set<String> changed) throws IOException
+  {
+    StorageTx tx = UnitOfWork.currentTx();
+    Bucket bucket = tx.findBucket(getRepository());
 
-        if (goModStream != null) {
-          storeContent(path.replaceAll("\\.zip", "\\.mod"),
-              vgoAttributes,
-              new StreamPayload(new InputStreamSupplier()
-              {
-                @Nonnull
-                @Override
-                public InputStream get() {
-                  return goModStream;
-                }
-              }, UNKNOWN_SIZE, TEXT_PLAIN),
-              VGO_MODULE);
-        }
+    Component component = vgoDataAccess.findOrCreateComponent(tx, getRepository(), bucket, vgoAttributes);
+
+    Asset zip = vgoDataAccess.findOrCreateAsset(tx, bucket, component, path, VGO_PACKAGE);
+    setH1(zip, null);
+    vgoDataAccess.saveAsset(tx, zip, zipBlob, payload);
+    changed.add(path);
+
+    VgoCoordinates coordinates = VgoCoordinates.of(vgoAttributes);
+    for (String metadataPath : new String[]{coordinates.modPath(), coordinates.infoPath()}) {
+      Asset metadata = vgoDataAccess.findAsset(tx, bucket, metadataPath);
+      if (metadata != null) {
+        tx.deleteAsset(metadata);
+        changed.add(metadataPath);
+      }
+    }
+
+    versionCatalog.addVersion(tx, getRepository(), vgoAttributes.getModule(), vgoAttributes.getVersion());
+    changed.add(pathUtils.listPath(vgoAttributes.getModule()));
+
+    return zip.requireBlobRef().getBlobId();
+  }
+
+  private void deriveInBackground(final String path, final VgoAttributes vgoAttributes, final BlobId blobId) {
+    UnitOfWork.begin(facet(StorageFacet.class).txSupplier());
+    try {
+      deriveOrWarn(path, vgoAttributes, blobId);
+    }
+    finally {
+      UnitOfWork.end();
+    }
+  }
+
+  /**
+   * Derives metadata of a zip once it is committed, so a failure does not fail the upload that stored the zip.
+   */
+  private void deriveOrWarn(final String path, final VgoAttributes vgoAttributes, final BlobId blobId) {
+    try {
+      derive(path, vgoAttributes, blobId);
+    }
+    catch (Exception e) {
+      log.warn("Unable to derive metadata of {} in {}, its go.mod and info are derived on demand", path,
+          getRepository().getName(), e);
+    }
+  }
+
+  /**
+   * Derives and saves the go.mod, info and {@code h1:} hashes of a stored zip, unless the zip was replaced or deleted
+   * in the meantime.
+   */
+  private void derive(final String path, final VgoAttributes vgoAttributes, final BlobId blobId) throws IOException {
+    Blob blob = findBlob(path, blobId);
+    if (blob == null) {
+      return;
+    }
+
+    String goModEntryPath = VgoCoordinates.of(vgoAttributes).goModEntryPath();
+    ZipHashHandler zipHash = new ZipHashHandler();
+    try (ZipEntryCapture goMod = new ZipEntryCapture(goModEntryPath, MAX_GO_MOD_SIZE)) {
+      boolean scanned;
+      long started = System.nanoTime();
+      try (ZipScanningInputStream in = new ZipScanningInputStream(blob.getInputStream(), goMod, zipHash)) {
+        ByteStreams.exhaust(in);
+        scanned = in.isScanned();
       }
-      catch (IOException e) {
-        log.warn(String.format("Unable to open content %s", path), e);
+      facet(VgoMetricsFacet.class).update(VGO_PACKAGE, ZIP_EXTRACTION, started);
+      // the time the zip was stored, as for infos served on demand
+      DateTime time = blob.getMetrics().getCreationTime();
+      try (VgoUpload derived = prepare(path, vgoAttributes, null, null, blob::getInputStream,
+          blob.getMetrics().getContentSize(), time, scanned ? zipHash : null, goMod)) {
+        Set<String> changed = new HashSet<>();
+        try {
+          saveDerived(derived, blobId, changed);
+        }
+        finally {
+          facet(VgoAssetCacheFacet.class).invalidate(changed);
+        }
       }
     }
   }
 
-  @TransactionalTouchBlob
-  protected Payload getZip(final String path) {
+  @Nullable
+  @Transactional
+  protected Blob findBlob(final String path, final BlobId blobId) {
     StorageTx tx = UnitOfWork.currentTx();
-
     Asset asset = vgoDataAccess.findAsset(tx, tx.findBucket(getRepository()), path);
-    if (asset == null) {
-      log.warn("Unable to find %s for extraction", path);
+    if (asset == null || !blobId.equals(asset.requireBlobRef().getBlobId())) {
       return null;
     }
-    return vgoDataAccess.getBlobAsPayload(tx, asset);
+    return tx.requireBlob(asset.requireBlobRef());
+  }
+
+  @TransactionalStoreBlob
+  protected void saveDerived(final VgoUpload derived, final BlobId blobId, final Set<String> changed)
+      throws IOException
+  {
+    StorageTx tx = UnitOfWork.currentTx();
+    Bucket bucket = tx.findBucket(getRepository());
+
+    Asset zip = vgoDataAccess.findAsset(tx, bucket, derived.path);
+    if (zip == null || !blobId.equals(zip.requireBlobRef().getBlobId())) {
+      log.debug("{} changed while deriving its metadata, dropping it", derived.path);
+      return;
+    }
+    setH1(zip, derived.zipH1);
+    tx.saveAsset(zip);
+    changed.add(derived.path);
+
+    saveMetadata(tx, bucket, tx.findComponent(zip.componentId()), derived, changed);
+  }
+
+  /**
+   * Stores the module zips of a tar stream, optionally gzipped. Each zip is copied to a temporary blob on the
+   * requesting thread, as the stream can only be read in order, while scanning the zips for their go.mod and
+   * {@code h1:} hash is done concurrently by a bounded pool. Prepared zips are saved in batches, one transaction per
+   * batch; a failing batch is retried zip by zip so every zip gets its own result.
+   */
+  @Override
+  public List<VgoUploadResult> uploadBulk(final Payload payload) throws IOException {
+    checkNotNull(payload);
+
+    List<VgoUploadResult> results = new ArrayList<>();
+    Deque<PendingUpload> pending = new ArrayDeque<>();
+    List<PendingUpload> batch = new ArrayList<>();
+    String current = null;
+    try (TarArchiveInputStream tar = new TarArchiveInputStream(decompress(payload.openInputStream()))) {
+      TarArchiveEntry entry;
+      while ((entry = tar.getNextTarEntry()) != null) {
+        if (!entry.isFile()) {
+          continue;
+        }
+        current = entry.getName();
+        pending.add(submit(current, tar, results));
+        current = null;
+        while (pending.size() > bulkThreads * 2) {
+          complete(pending.remove(), batch, results);
+        }
+      }
+    }
+    catch (IOException e) {
+      log.warn("Unable to read bulk upload to {}", getRepository().getName(), e);
+      VgoUploadResult failed = VgoUploadResult.failed(current != null ? current : "", null,
+          "Unable to read upload: " + e.getMessage());
+      if (current != null) {
+        // the slot reserved for the entry being read
+        results.set(results.size() - 1, failed);
+      }
+      else {
+        results.add(failed);
+      }
+    }
+    finally {
+      while (!pending.isEmpty()) {
+        complete(pending.remove(), batch, results);
+      }
+      flush(batch, results);
+    }
+    return results;
+  }
+
+  private static InputStream decompress(final InputStream in) throws IOException {
+    BufferedInputStream buffered = new BufferedInputStream(in);
+    buffered.mark(2);
+    int first = buffered.read();
+    int second = buffered.read();
+    buffered.reset();
+    return first == 0x1f && second == 0x8b ? new GZIPInputStream(buffered) : buffered;
+  }
+
+  /**
+   * Copies the current tar entry to a temporary blob and hands it to the pool to be prepared, reserving the result
+   * slot of the entry.
+   */
+  private PendingUpload submit(final String name,
+                               final InputStream tar,
+                               final List<VgoUploadResult> results) throws IOException
+  {
+    int index = results.size();
+    results.add(null);
+
+    VgoAttributes vgoAttributes = pathUtils.attributesFromPath(name, "zip");
+    if (vgoAttributes == null) {
+      results.set(index, VgoUploadResult.failed(name, null, "Not a module zip path"));
+      return new PendingUpload(index, name, null, null);
+    }
+    String path = VgoCoordinates.of(vgoAttributes).zipPath();
+    try {
+      facet(SecurityFacet.class).ensurePermitted(new Request.Builder().action(PUT).path("/" + path).build());
+    }
+    catch (AuthorizationException e) {
+      results.set(index, VgoUploadResult.failed(path, vgoAttributes, "Not permitted"));
+      return new PendingUpload(index, path, vgoAttributes, null);
+    }
+
+    TempBlob zipBlob = facet(StorageFacet.class).createTempBlob(new FilterInputStream(tar)
+    {
+      @Override
+      public void close() {
+        // the tar stream stays open for the following entries
+      }
+    }, HASH_ALGORITHMS);
+    Callable<VgoUpload> prepare = () -> prepareStored(path, vgoAttributes, zipBlob);
+    try {
+      return new PendingUpload(index, path, vgoAttributes, executor.submit(prepare));
+    }
+    catch (RejectedExecutionException e) {
+      zipBlob.close();
+      throw e;
+    }
+  }
+
+  private VgoUpload prepareStored(final String path,
+                                  final VgoAttributes vgoAttributes,
+                                  final TempBlob zipBlob) throws IOException
+  {
+    String goModEntryPath = VgoCoordinates.of(vgoAttributes).goModEntryPath();
+    ZipHashHandler zipHash = new ZipHashHandler();
+
+    try (ZipEntryCapture goMod = new ZipEntryCapture(goModEntryPath, MAX_GO_MOD_SIZE)) {
+      boolean scanned;
+      try (ZipScanningInputStream in = new ZipScanningInputStream(zipBlob.get(), goMod, zipHash)) {
+        ByteStreams.exhaust(in);
+        scanned = in.isScanned();
+      }
+      catch (IOException | RuntimeException e) {
+        zipBlob.close();
+        throw e;
+      }
+      return prepare(path, vgoAttributes, null, zipBlob, scanned ? zipHash : null, goMod);
+    }
+  }
+
+  /**
+   * Waits for a pending zip to be prepared and adds it to the batch, saving the batch once it is full.
+   */
+  private void complete(final PendingUpload next,
+                        final List<PendingUpload> batch,
+                        final List<VgoUploadResult> results)
+  {
+    if (next.future == null) {
+      return;
+    }
+    try {
+      // preparing is bounded work, waiting for it ensures the temporary blobs it creates are released
+      next.upload = Uninterruptibles.getUninterruptibly(next.future);
+    }
+    catch (ExecutionException e) {
+      results.set(next.index, VgoUploadResult.failed(next.path, next.vgoAttributes, e.getCause().getMessage()));
+      return;
+    }
+    if (batch.stream().anyMatch(queued -> queued.path.equals(next.path))) {
+      // the same zip twice, the first must be committed before the second replaces it
+      flush(batch, results);
+    }
+    batch.add(next);
+    if (batch.size() >= bulkBatchSize) {
+      flush(batch, results);
+    }
+  }
+
+  private void flush(final List<PendingUpload> batch, final List<VgoUploadResult> results) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      save(batch.stream().map(queued -> queued.upload).collect(Collectors.toList()));
+      batch.forEach(queued -> results.set(queued.index, VgoUploadResult.created(queued.path, queued.vgoAttributes)));
+    }
+    catch (Exception batchFailure) {
+      log.debug("Saving a batch of {} zips to {} failed, saving them one by one", batch.size(),
+          getRepository().getName(), batchFailure);
+      for (PendingUpload queued : batch) {
+        try {
+          save(Collections.singletonList(queued.upload));
+          results.set(queued.index, VgoUploadResult.created(queued.path, queued.vgoAttributes));
+        }
+        catch (Exception e) {
+          log.warn("Unable to save {} to {}", queued.path, getRepository().getName(), e);
+          results.set(queued.index, VgoUploadResult.failed(queued.path, queued.vgoAttributes, e.getMessage()));
+        }
+      }
+    }
+    finally {
+      batch.forEach(queued -> queued.upload.close());
+      batch.clear();
+    }
+  }
+
+  /**
+   * Derives the go.mod and info of a stored zip, falling back to the central directory of the zip when it could not be
+   * scanned while streaming. Takes ownership of the zip blob, which is released if preparing fails.
+   */
+  private VgoUpload prepare(final String path,
+                            final VgoAttributes vgoAttributes,
+                            @Nullable final Payload payload,
+                            final TempBlob zipBlob,
+                            @Nullable final ZipHashHandler scannedHash,
+                            final ZipEntryCapture goMod) throws IOException
+  {
+    try {
+      return prepare(path, vgoAttributes, payload, zipBlob, zipBlob, zipBlob.getBlob().getMetrics().getContentSize(),
+          DateTime.now(), scannedHash, goMod);
+    }
+    catch (IOException | RuntimeException e) {
+      zipBlob.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Derives the go.mod and info of a zip read from {@code zip}, which is either the zip blob to be saved along with
+   * them or, without a zip blob, the blob of an already stored zip. The info records {@code time} as the time of the
+   * version. What was scanned while streaming is only used if it matches the central directory of the zip, which is
+   * what go reads, otherwise the go.mod and {@code h1:} hash are taken from the central directory.
+   */
+  private VgoUpload prepare(final String path,
+                            final VgoAttributes vgoAttributes,
+                            @Nullable final Payload payload,
+                            @Nullable final TempBlob zipBlob,
+                            final Supplier<InputStream> zip,
+                            final long zipSize,
+                            final DateTime time,
+                            @Nullable final ZipHashHandler scannedHash,
+                            final ZipEntryCapture goMod) throws IOException
+  {
+    StorageFacet storageFacet = facet(StorageFacet.class);
+    TempBlob infoBlob = null;
+    TempBlob modBlob = null;
+    try {
+      String zipH1 = null;
+      if (scannedHash != null && scannedHash.matchesCentralDirectory(new ReopeningSeekableByteChannel(zip, zipSize))) {
+        zipH1 = scannedHash.getHash();
+      }
+      else {
+        // the zip could not be followed while streaming or its local entries differ, fall back to its central directory
+        if (scannedHash != null) {
+          log.debug("Local entries of {} differ from its central directory", path);
+        }
+        goMod.close();
+        long started = System.nanoTime();
+        String goModEntryPath = VgoCoordinates.of(vgoAttributes).goModEntryPath();
+        extractEntry(new ReopeningSeekableByteChannel(zip, zipSize), goModEntryPath, MAX_GO_MOD_SIZE, goMod);
+        zipH1 = DirHash.hashZip(new ReopeningSeekableByteChannel(zip, zipSize));
+        facet(VgoMetricsFacet.class).update(VGO_PACKAGE, ZIP_EXTRACTION, started);
+      }
+
+      Content info = new Content(new BytesPayload(infoJson(vgoAttributes.getVersion(), time), APPLICATION_JSON));
+      infoBlob = storageFacet.createTempBlob(info.openInputStream(), HASH_ALGORITHMS);
+
+      String modH1 = null;
+      if (goMod.isCaptured()) {
+        modBlob = storageFacet.createTempBlob(
+            new StreamPayload(goMod::openStream, goMod.getSize(), TEXT_PLAIN), HASH_ALGORITHMS);
+        modH1 = DirHash.hashGoMod(goMod.getSha256());
+      }
+      else {
+        log.debug("No module root go.mod found in {}", path);
+      }
+
+      return new VgoUpload(path, vgoAttributes, zipBlob, payload, zipH1, modBlob, modH1, infoBlob, info);
+    }
+    catch (IOException | RuntimeException e) {
+      if (infoBlob != null) {
+        infoBlob.close();
+      }
+      if (modBlob != null) {
+        modBlob.close();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Saves prepared zips, dropping the assets they changed from the asset cache once they are committed, so no lookup
+   * racing the commit caches the assets as they were before.
+   */
+  private void save(final List<VgoUpload> uploads) throws IOException {
+    Set<String> changed = new HashSet<>();
+    try {
+      saveContent(uploads, changed);
+    }
+    finally {
+      facet(VgoAssetCacheFacet.class).invalidate(changed);
+    }
+  }
+
+  /**
+   * Saves prepared zips in a single transaction, updating the version catalog of each module once. Collects the paths
+   * of the assets it changed.
+   */
+  @TransactionalStoreBlob
+  protected void saveContent(final List<VgoUpload> uploads, final Set<String> changed) throws IOException {
+    StorageTx tx = UnitOfWork.currentTx();
+    Bucket bucket = tx.findBucket(getRepository());
+
+    Map<String, List<String>> versions = new LinkedHashMap<>();
+    for (VgoUpload upload : uploads) {
+      saveContent(tx, bucket, upload, changed);
+      versions.computeIfAbsent(upload.vgoAttributes.getModule(), module -> new ArrayList<>())
+          .add(upload.vgoAttributes.getVersion());
+    }
+
+    for (Entry<String, List<String>> module : versions.entrySet()) {
+      versionCatalog.addVersions(tx, getRepository(), module.getKey(), module.getValue());
+      changed.add(pathUtils.listPath(module.getKey()));
+    }
+  }
+
+  private void saveContent(final StorageTx tx,
+                           final Bucket bucket,
+                           final VgoUpload upload,
+                           final Set<String> changed) throws IOException
+  {
+    VgoAttributes vgoAttributes = upload.vgoAttributes;
+    String path = upload.path;
+
+    Component component = vgoDataAccess.findOrCreateComponent(tx, getRepository(), bucket, vgoAttributes);
+
+    Asset zip = vgoDataAccess.findOrCreateAsset(tx, bucket, component, path, VGO_PACKAGE);
+    setH1(zip, upload.zipH1);
+    vgoDataAccess.saveAsset(tx, zip, upload.zipBlob, upload.payload);
+    changed.add(path);
+
+    saveMetadata(tx, bucket, component, upload, changed);
+  }
+
+  private void saveMetadata(final StorageTx tx,
+                            final Bucket bucket,
+                            final Component component,
+                            final VgoUpload upload,
+                            final Set<String> changed) throws IOException
+  {
+    VgoCoordinates coordinates = VgoCoordinates.of(upload.vgoAttributes);
+
+    String modPath = coordinates.modPath();
+    if (upload.modBlob != null) {
+      Asset mod = vgoDataAccess.findOrCreateAsset(tx, bucket, component, modPath, VGO_MODULE);
+      setH1(mod, upload.modH1);
+      vgoDataAccess.saveAsset(tx, mod, upload.modBlob, null);
+      changed.add(modPath);
+    }
+    else {
+      // a zip without go.mod replacing one with it, the go.mod of the earlier zip no longer applies
+      Asset mod = vgoDataAccess.findAsset(tx, bucket, modPath);
+      if (mod != null) {
+        tx.deleteAsset(mod);
+        changed.add(modPath);
+      }
+    }
+
+    String infoPath = coordinates.infoPath();
+    vgoDataAccess.createOrSaveComponentAsset(tx, bucket, component, infoPath, upload.infoBlob, upload.info, VGO_INFO);
+    changed.add(infoPath);
+  }
+
+  private void setH1(final Asset asset, @Nullable final String h1) {
+    if (h1 != null) {
+      asset.formatAttributes().set(P_H1, h1);
+    }
+    else {
+      asset.formatAttributes().remove(P_H1);
+    }
+  }
+
+  /**
+   * A zip of a bulk upload, from being read off the stream until it is saved.
+   */
+  private static final class PendingUpload
+  {
+    private final int index;
+
+    private final String path;
+
+    @Nullable
+    private final VgoAttributes vgoAttributes;
+
+    @Nullable
+    private final Future<VgoUpload> future;
+
+    private VgoUpload upload;
+
+    private PendingUpload(final int index,
+                          final String path,
+                          @Nullable final VgoAttributes vgoAttributes,
+                          @Nullable final Future<VgoUpload> future)
+    {
+      this.index = index;
+      this.path = path;
+      this.vgoAttributes = vgoAttributes;
+      this.future = future;
+    }
   }
 }
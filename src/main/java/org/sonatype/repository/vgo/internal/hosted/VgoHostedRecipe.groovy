@@ -47,6 +47,9 @@ class VgoHostedRecipe
   @Inject
   Provider<VgoHostedFacetImpl> hostedFacet
 
+  @Inject
+  Provider<VgoComponentMaintenanceFacet> vgoComponentMaintenanceFacet
+
   @Inject
   VgoHostedRecipe(@Named(HostedType.NAME) final Type type,
                   @Named(VgoFormat.NAME) final Format format)
@@ -59,8 +62,10 @@ class VgoHostedRecipe
     repository.attach(securityFacet.get())
     repository.attach(configure(viewFacet.get()))
     repository.attach(httpClientFacet.get())
-    repository.attach(componentMaintenanceFacet.get())
+    repository.attach(vgoComponentMaintenanceFacet.get())
     repository.attach(storageFacet.get())
+    repository.attach(assetCacheFacet.get())
+    repository.attach(metricsFacet.get())
     repository.attach(hostedFacet.get())
     repository.attach(searchFacet.get())
     repository.attach(attributesFacet.get())
@@ -72,12 +77,14 @@ class VgoHostedRecipe
   private ViewFacet configure(final ConfigurableViewFacet facet) {
     Router.Builder builder = new Router.Builder()
 
-    [infoMatcher(), listMatcher()].each { matcher ->
+    [infoMatcher(), listMatcher(), latestMatcher()].each { matcher ->
       builder.route(new Route.Builder().matcher(matcher)
           .handler(timingHandler)
+          .handler(metricsHandler)
           .handler(securityHandler)
           .handler(exceptionHandler)
           .handler(handlerContributor)
+          .handler(conditionalRequestHandler)
           .handler(partialFetchHandler)
           .handler(contentHeadersHandler)
           .handler(unitOfWorkHandler)
@@ -88,6 +95,7 @@ class VgoHostedRecipe
     [packageMatcher(), moduleMatcher()].each { matcher ->
       builder.route(new Route.Builder().matcher(matcher)
           .handler(timingHandler)
+          .handler(metricsHandler)
           .handler(securityHandler)
           .handler(exceptionHandler)
           .handler(handlerContributor)
@@ -101,6 +109,7 @@ class VgoHostedRecipe
 
     builder.route(new Route.Builder().matcher(uploadMatcher())
         .handler(timingHandler)
+        .handler(metricsHandler)
         .handler(securityHandler)
         .handler(exceptionHandler)
         .handler(handlerContributor)
@@ -111,6 +120,17 @@ class VgoHostedRecipe
         .handler(hostedHandlers.upload)
         .create())
 
+    builder.route(new Route.Builder().matcher(bulkUploadMatcher())
+        .handler(timingHandler)
+        .handler(metricsHandler)
+        .handler(securityHandler)
+        .handler(exceptionHandler)
+        .handler(handlerContributor)
+        .handler(contentHeadersHandler)
+        .handler(unitOfWorkHandler)
+        .handler(hostedHandlers.bulkUpload)
+        .create())
+
     builder.route(new Route.Builder()
         .matcher(BrowseUnsupportedHandler.MATCHER)
         .handler(browseUnsupportedHandler)
@@ -0,0 +1,97 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.hosted;
+
+import java.io.Closeable;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.repository.storage.TempBlob;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.repository.view.Payload;
+import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A module zip along with the go.mod and info derived from it, ready to be saved. Owns the temporary blobs, which are
+ * released on {@link #close()}. Without a zip blob only the derived metadata of an already stored zip is saved.
+ *
+ * @since 0.0.3
+ */
+class VgoUpload
+    implements Closeable
+{
+  final String path;
+
+  final VgoAttributes vgoAttributes;
+
+  @Nullable
+  final TempBlob zipBlob;
+
+  @Nullable
+  final Payload payload;
+
+  @Nullable
+  final String zipH1;
+
+  @Nullable
+  final TempBlob modBlob;
+
+  @Nullable
+  final String modH1;
+
+  final TempBlob infoBlob;
+
+  final Content info;
+
+  VgoUpload(final String path,
+            final VgoAttributes vgoAttributes,
+            @Nullable final TempBlob zipBlob,
+            @Nullable final Payload payload,
+            @Nullable final String zipH1,
+            @Nullable final TempBlob modBlob,
+            @Nullable final String modH1,
+            final TempBlob infoBlob,
+            final Content info)
+  {
+    this.path = checkNotNull(path);
+    this.vgoAttributes = checkNotNull(vgoAttributes);
+    this.zipBlob = zipBlob;
+    this.payload = payload;
+    this.zipH1 = zipH1;
+    this.modBlob = modBlob;
+    this.modH1 = modH1;
+    this.infoBlob = checkNotNull(infoBlob);
+    this.info = checkNotNull(info);
+  }
+
+  @Override
+  public void close() {
+    try {
+      infoBlob.close();
+    }
+    finally {
+      try {
+        if (modBlob != null) {
+          modBlob.close();
+        }
+      }
+      finally {
+        if (zipBlob != null) {
+          zipBlob.close();
+        }
+      }
+    }
+  }
+}
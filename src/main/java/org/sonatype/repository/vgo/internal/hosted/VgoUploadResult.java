@@ -0,0 +1,97 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.hosted;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Outcome of storing a single module zip of a bulk upload.
+ *
+ * @since 0.0.3
+ */
+@JsonInclude(Include.NON_NULL)
+public class VgoUploadResult
+{
+  public static final String CREATED = "created";
+
+  public static final String FAILED = "failed";
+
+  @JsonProperty("path")
+  private final String path;
+
+  @JsonProperty("module")
+  private final String module;
+
+  @JsonProperty("version")
+  private final String version;
+
+  @JsonProperty("status")
+  private final String status;
+
+  @JsonProperty("message")
+  private final String message;
+
+  private VgoUploadResult(final String path,
+                          @Nullable final VgoAttributes vgoAttributes,
+                          final String status,
+                          @Nullable final String message)
+  {
+    this.path = checkNotNull(path);
+    this.module = vgoAttributes != null ? vgoAttributes.getModule() : null;
+    this.version = vgoAttributes != null ? vgoAttributes.getVersion() : null;
+    this.status = checkNotNull(status);
+    this.message = message;
+  }
+
+  public static VgoUploadResult created(final String path, final VgoAttributes vgoAttributes) {
+    return new VgoUploadResult(path, vgoAttributes, CREATED, null);
+  }
+
+  public static VgoUploadResult failed(final String path,
+                                       @Nullable final VgoAttributes vgoAttributes,
+                                       final String message)
+  {
+    return new VgoUploadResult(path, vgoAttributes, FAILED, message);
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  @Nullable
+  public String getModule() {
+    return module;
+  }
+
+  @Nullable
+  public String getVersion() {
+    return version;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  @Nullable
+  public String getMessage() {
+    return message;
+  }
+}
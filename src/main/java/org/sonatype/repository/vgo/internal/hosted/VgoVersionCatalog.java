@@ -0,0 +1,456 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.hosted;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.Bucket;
+import org.sonatype.nexus.repository.storage.Query;
+import org.sonatype.nexus.repository.storage.StorageTx;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.repository.view.payloads.StreamPayload;
+import org.sonatype.repository.vgo.internal.metadata.VgoCoordinates;
+import org.sonatype.repository.vgo.internal.util.VgoCaseEncoding;
+import org.sonatype.repository.vgo.internal.util.VgoDataAccess;
+import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+import org.sonatype.repository.vgo.internal.util.VgoVersions;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
+import org.joda.time.DateTime;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.sonatype.nexus.repository.storage.AssetEntityAdapter.P_ASSET_KIND;
+import static org.sonatype.nexus.repository.storage.MetadataNodeEntityAdapter.P_NAME;
+import static org.sonatype.nexus.repository.view.ContentTypes.TEXT_PLAIN;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_LIST;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_PACKAGE;
+
+/**
+ * Maintains the per module version catalog used to answer {@code @v/list} requests of hosted repositories.
+ *
+ * The catalog of a module is a blob-less asset stored at the list path of the module, holding the known versions as
+ * a format attribute in semantic version order, along with the version {@code @latest} resolves to. It is updated as
+ * zips are uploaded and deleted, so neither listing nor resolving {@code @latest} has to scan or sort. The catalog
+ * also records the hash and size of the list it answers with and when the list last changed, so list requests are
+ * answered with a known size, ETag and Last-Modified, and conditional requests without building the list.
+ *
+ * The list is last modified when the newest of the zips that changed it was stored, so rebuilding a catalog keeps
+ * the time its zips tell rather than the time of the rebuild. The time never moves backwards, and removing a version
+ * records the time of the removal, as no remaining zip tells when the list lost a version.
+ *
+ * @since 0.0.3
+ */
+@Named
+@Singleton
+public class VgoVersionCatalog
+{
+  static final String P_VERSIONS = "versions";
+
+  static final String P_LATEST = "latest";
+
+  static final String P_ETAG = "etag";
+
+  static final String P_SIZE = "size";
+
+  static final String P_LAST_MODIFIED = "last_modified";
+
+  /**
+   * Format of the recorded list hash and size, bumped when the list text changes for the same versions.
+   */
+  static final String P_LIST_FORMAT = "list_format";
+
+  private static final int LIST_FORMAT = 2;
+
+  private static final String SEPARATOR = "\n";
+
+  private static final String ZIP_EXTENSION = ".zip";
+
+  private static final int REBUILD_PAGE_SIZE = 1000;
+
+  /**
+   * Orders recorded versions, which are case encoded, by the precedence of the versions they encode.
+   */
+  private static final Comparator<String> ENCODED_SEMVER_ORDER = (a, b) -> {
+    int result = VgoVersions.compare(decode(a), decode(b));
+    return result != 0 ? result : a.compareTo(b);
+  };
+
+  private final VgoDataAccess vgoDataAccess;
+
+  private final VgoPathUtils pathUtils;
+
+  @Inject
+  public VgoVersionCatalog(final VgoDataAccess vgoDataAccess, final VgoPathUtils pathUtils) {
+    this.vgoDataAccess = checkNotNull(vgoDataAccess);
+    this.pathUtils = checkNotNull(pathUtils);
+  }
+
+  /**
+   * Returns the versions recorded for a module, empty if the module is not known.
+   */
+  public List<String> getVersions(final StorageTx tx, final Bucket bucket, final String module) {
+    return getVersions(vgoDataAccess.findAsset(tx, bucket, pathUtils.listPath(module)));
+  }
+
+  /**
+   * Returns the versions recorded in a catalog, empty if there is no catalog.
+   */
+  public List<String> getVersions(@Nullable final Asset catalog) {
+    if (catalog == null) {
+      return emptyList();
+    }
+    return new ArrayList<>(versions(catalog));
+  }
+
+  /**
+   * Returns the {@code @v/list} content of a catalog, {@code null} if there is no catalog or it has no versions.
+   */
+  @Nullable
+  public Content getList(@Nullable final Asset catalog) {
+    List<String> versions = getVersions(catalog);
+    if (versions.isEmpty()) {
+      return null;
+    }
+
+    String etag = catalog.formatAttributes().get(P_ETAG, String.class);
+    Number size = catalog.formatAttributes().get(P_SIZE, Number.class);
+    Number format = catalog.formatAttributes().get(P_LIST_FORMAT, Number.class);
+    if (etag == null || size == null || format == null || format.intValue() != LIST_FORMAT) {
+      // catalogs written before the list hash was recorded, or before case encoded versions were listed decoded
+      byte[] list = list(versions);
+      etag = hash(list);
+      size = list.length;
+    }
+
+    Content content = new Content(
+        new StreamPayload(() -> new ByteArrayInputStream(list(versions)), size.longValue(), TEXT_PLAIN));
+    content.getAttributes().set(Content.CONTENT_ETAG, etag);
+    Date lastModified = catalog.formatAttributes().get(P_LAST_MODIFIED, Date.class);
+    if (lastModified != null) {
+      content.getAttributes().set(Content.CONTENT_LAST_MODIFIED, new DateTime(lastModified));
+    }
+    return content;
+  }
+
+  /**
+   * Returns the version {@code @latest} resolves to for a module, {@code null} if the module is not known.
+   */
+  @Nullable
+  public String getLatest(final StorageTx tx, final Bucket bucket, final String module) {
+    return getLatest(vgoDataAccess.findAsset(tx, bucket, pathUtils.listPath(module)));
+  }
+
+  /**
+   * Returns the version {@code @latest} resolves to according to a catalog, {@code null} if there is no catalog.
+   */
+  @Nullable
+  public String getLatest(@Nullable final Asset catalog) {
+    if (catalog == null) {
+      return null;
+    }
+    String latest = catalog.formatAttributes().get(P_LATEST, String.class);
+    // catalogs written before the latest version was recorded
+    return latest != null ? latest : latest(versions(catalog));
+  }
+
+  /**
+   * Records a version of a module, creating the catalog of the module when needed.
+   */
+  public void addVersion(final StorageTx tx, final Repository repository, final String module, final String version) {
+    addVersions(tx, repository, module, Collections.singletonList(version));
+  }
+
+  /**
+   * Records several versions of a module at once, creating the catalog of the module when needed.
+   */
+  public void addVersions(final StorageTx tx,
+                          final Repository repository,
+                          final String module,
+                          final Collection<String> added)
+  {
+    Bucket bucket = tx.findBucket(repository);
+    Asset catalog = vgoDataAccess.findAsset(tx, bucket, pathUtils.listPath(module));
+    boolean created = false;
+    if (catalog == null) {
+      catalog = createCatalog(tx, repository, bucket, module);
+      created = true;
+    }
+    SortedSet<String> versions = sorted(versions(catalog));
+    if (versions.addAll(added) || created) {
+      write(tx, catalog, versions, newestZip(tx, bucket, module, added));
+    }
+  }
+
+  /**
+   * Removes a version of a module, deleting the catalog of the module once it has no versions left.
+   */
+  public void removeVersion(final StorageTx tx, final Bucket bucket, final String module, final String version) {
+    Asset catalog = vgoDataAccess.findAsset(tx, bucket, pathUtils.listPath(module));
+    if (catalog == null) {
+      return;
+    }
+    SortedSet<String> versions = sorted(versions(catalog));
+    if (!versions.remove(version)) {
+      return;
+    }
+    if (versions.isEmpty()) {
+      tx.deleteAsset(catalog);
+    }
+    else {
+      write(tx, catalog, versions, new Date());
+    }
+  }
+
+  /**
+   * Collects the modules with zips or a catalog from a page of the assets of a repository, in name order after the
+   * given name, so a rebuild reads a large repository in transactions of bounded size.
+   *
+   * @param after the name of the last asset of the previous page, the empty string for the first page
+   * @return the name to pass for the next page, {@code null} once all assets are read
+   */
+  @Nullable
+  public String collectModules(final StorageTx tx,
+                               final Repository repository,
+                               final String after,
+                               final Set<String> modules)
+  {
+    Iterable<Asset> page = tx.findAssets(
+        Query.builder()
+            .where(P_NAME + " > ").param(after)
+            .suffix("ORDER BY " + P_NAME + " LIMIT " + REBUILD_PAGE_SIZE)
+            .build(),
+        singletonList(repository)
+    );
+    String last = null;
+    int count = 0;
+    for (Asset asset : page) {
+      count++;
+      last = asset.name();
+      String assetKind = asset.formatAttributes().get(P_ASSET_KIND, String.class);
+      if (VGO_PACKAGE.name().equals(assetKind) || VGO_LIST.name().equals(assetKind)) {
+        int separator = last.lastIndexOf(VgoPathUtils.VERSION_SEPARATOR);
+        if (separator > 0) {
+          modules.add(last.substring(0, separator));
+        }
+      }
+    }
+    return count < REBUILD_PAGE_SIZE ? null : last;
+  }
+
+  /**
+   * Rebuilds the catalog of a module from the zips the module holds, deleting the catalog once the module is gone.
+   */
+  public void rebuild(final StorageTx tx, final Repository repository, final String module) {
+    Bucket bucket = tx.findBucket(repository);
+
+    Map<String, Date> zips = new HashMap<>();
+    Iterable<Asset> assets = tx.findAssets(
+        Query.builder()
+            .where(P_NAME).like(module + VgoPathUtils.VERSION_SEPARATOR + "%")
+            .build(),
+        singletonList(repository)
+    );
+    for (Asset asset : assets) {
+      if (VGO_PACKAGE.name().equals(asset.formatAttributes().get(P_ASSET_KIND, String.class))) {
+        zips.put(asset.name(), stored(asset));
+      }
+    }
+
+    // like also matches modules that differ in characters taken for wildcards, or are nested below the module
+    SortedSet<String> versions = versionsByModule(zips.keySet()).get(module);
+    Asset catalog = vgoDataAccess.findAsset(tx, bucket, pathUtils.listPath(module));
+    if (versions == null) {
+      if (catalog != null) {
+        tx.deleteAsset(catalog);
+      }
+      return;
+    }
+    if (catalog == null) {
+      catalog = createCatalog(tx, repository, bucket, module);
+    }
+    Date newest = null;
+    for (String version : versions) {
+      newest = newer(newest, zips.get(VgoCoordinates.of(module, version).zipPath()));
+    }
+    write(tx, catalog, versions, newest);
+  }
+
+  /**
+   * Groups the versions of zips by module, in semantic version order. Names that are not zip paths are skipped.
+   */
+  @VisibleForTesting
+  static Map<String, SortedSet<String>> versionsByModule(final Iterable<String> zipNames) {
+    Map<String, SortedSet<String>> modules = new HashMap<>();
+    for (String name : zipNames) {
+      int separator = name.lastIndexOf(VgoPathUtils.VERSION_SEPARATOR);
+      if (separator > 0 && name.endsWith(ZIP_EXTENSION)) {
+        String module = name.substring(0, separator);
+        String version = name.substring(separator + VgoPathUtils.VERSION_SEPARATOR.length(),
+            name.length() - ZIP_EXTENSION.length());
+        modules.computeIfAbsent(module, key -> sorted(emptyList())).add(version);
+      }
+    }
+    return modules;
+  }
+
+  private Asset createCatalog(final StorageTx tx,
+                              final Repository repository,
+                              final Bucket bucket,
+                              final String module)
+  {
+    Asset catalog = tx.createAsset(bucket, repository.getFormat());
+    catalog.name(pathUtils.listPath(module));
+    catalog.formatAttributes().set(P_ASSET_KIND, VGO_LIST.name());
+    return catalog;
+  }
+
+  /**
+   * Builds the list text of versions, which are recorded case encoded as in paths but listed as the go command knows
+   * them.
+   */
+  @VisibleForTesting
+  static byte[] list(final Collection<String> versions) {
+    StringBuilder list = new StringBuilder(versions.size() * 16);
+    for (String version : versions) {
+      if (list.length() > 0) {
+        list.append(SEPARATOR);
+      }
+      list.append(VgoCaseEncoding.decodeLeniently(version));
+    }
+    return list.toString().getBytes(UTF_8);
+  }
+
+  private static String hash(final byte[] list) {
+    return Hashing.sha1().hashBytes(list).toString();
+  }
+
+  private static SortedSet<String> sorted(final Collection<String> versions) {
+    SortedSet<String> sorted = new TreeSet<>(ENCODED_SEMVER_ORDER);
+    sorted.addAll(versions);
+    return sorted;
+  }
+
+  /**
+   * Returns the recorded version {@code @latest} resolves to, chosen by the versions the recorded ones encode.
+   */
+  @Nullable
+  @VisibleForTesting
+  static String latest(final Collection<String> versions) {
+    Map<String, String> encodedByDecoded = new HashMap<>();
+    for (String version : versions) {
+      encodedByDecoded.put(decode(version), version);
+    }
+    String latest = VgoVersions.latest(encodedByDecoded.keySet());
+    return latest != null ? encodedByDecoded.get(latest) : null;
+  }
+
+  /**
+   * Decodes a recorded version for {@link VgoVersions}, versions that are not validly encoded are invalid versions.
+   */
+  private static String decode(final String version) {
+    String decoded = VgoCaseEncoding.decode(version);
+    return decoded != null ? decoded : "";
+  }
+
+  @SuppressWarnings("unchecked")
+  private Collection<String> versions(final Asset catalog) {
+    return catalog.formatAttributes().get(P_VERSIONS, List.class, emptyList());
+  }
+
+  /**
+   * Returns when the newest of the zips of versions of a module was stored, {@code null} if none of them is found.
+   */
+  @Nullable
+  private Date newestZip(final StorageTx tx,
+                         final Bucket bucket,
+                         final String module,
+                         final Collection<String> versions)
+  {
+    Date newest = null;
+    for (String version : versions) {
+      Asset zip = vgoDataAccess.findAsset(tx, bucket, VgoCoordinates.of(module, version).zipPath());
+      if (zip != null) {
+        newest = newer(newest, stored(zip));
+      }
+    }
+    return newest;
+  }
+
+  /**
+   * Returns when the blob of an asset was last stored, {@code null} if it has no blob.
+   */
+  @Nullable
+  private static Date stored(final Asset asset) {
+    DateTime stored = asset.blobUpdated() != null ? asset.blobUpdated() : asset.blobCreated();
+    return stored != null ? stored.toDate() : null;
+  }
+
+  @Nullable
+  private static Date newer(@Nullable final Date a, @Nullable final Date b) {
+    if (a == null) {
+      return b;
+    }
+    return b != null && b.after(a) ? b : a;
+  }
+
+  /**
+   * Writes versions to a catalog, marking the list modified at the given time if it changed, or now if the time is not
+   * known.
+   */
+  private void write(final StorageTx tx,
+                     final Asset catalog,
+                     final Collection<String> versions,
+                     @Nullable final Date modified)
+  {
+    catalog.formatAttributes().set(P_VERSIONS, new ArrayList<>(versions));
+    byte[] list = list(versions);
+    String etag = hash(list);
+    if (!etag.equals(catalog.formatAttributes().get(P_ETAG, String.class))) {
+      catalog.formatAttributes().set(P_ETAG, etag);
+      catalog.formatAttributes().set(P_SIZE, (long) list.length);
+      Date lastModified = newer(catalog.formatAttributes().get(P_LAST_MODIFIED, Date.class), modified);
+      catalog.formatAttributes().set(P_LAST_MODIFIED, lastModified != null ? lastModified : new Date());
+    }
+    catalog.formatAttributes().set(P_LIST_FORMAT, LIST_FORMAT);
+    String latest = latest(versions);
+    if (latest != null) {
+      catalog.formatAttributes().set(P_LATEST, latest);
+    }
+    else {
+      catalog.formatAttributes().remove(P_LATEST);
+    }
+    tx.saveAsset(catalog);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.hosted;
+
+import javax.inject.Named;
+
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.RepositoryTaskSupport;
+import org.sonatype.nexus.repository.storage.StorageFacet;
+import org.sonatype.nexus.repository.types.HostedType;
+import org.sonatype.nexus.transaction.UnitOfWork;
+import org.sonatype.repository.vgo.VgoFormat;
+
+/**
+ * Task that rebuilds the version catalog of vgo hosted repositories, e.g. for content stored before the catalog
+ * was introduced.
+ *
+ * @since 0.0.3
+ */
+@Named
+public class VgoVersionCatalogRebuildTask
+    extends RepositoryTaskSupport
+{
+  @Override
+  protected void execute(final Repository repository) {
+    UnitOfWork.begin(repository.facet(StorageFacet.class).txSupplier());
+    try {
+      repository.facet(VgoHostedFacet.class).rebuildVersionCatalog();
+    }
+    finally {
+      UnitOfWork.end();
+    }
+  }
+
+  @Override
+  protected boolean appliesTo(final Repository repository) {
+    return VgoFormat.NAME.equals(repository.getFormat().getValue())
+        && HostedType.NAME.equals(repository.getType().getValue());
+  }
+
+  @Override
+  public String getMessage() {
+    return "Rebuilding vgo version catalog of " + getRepositoryField();
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.hosted;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.nexus.formfields.RepositoryCombobox;
+import org.sonatype.nexus.repository.RepositoryTaskSupport;
+import org.sonatype.nexus.repository.types.HostedType;
+import org.sonatype.nexus.scheduling.TaskDescriptorSupport;
+import org.sonatype.repository.vgo.VgoFormat;
+
+/**
+ * Task descriptor for {@link VgoVersionCatalogRebuildTask}.
+ *
+ * @since 0.0.3
+ */
+@Named
+@Singleton
+public class VgoVersionCatalogRebuildTaskDescriptor
+    extends TaskDescriptorSupport
+{
+  public static final String TYPE_ID = "repository.vgo.rebuild-version-catalog";
+
+  public VgoVersionCatalogRebuildTaskDescriptor() {
+    super(TYPE_ID,
+        VgoVersionCatalogRebuildTask.class,
+        "Repair - Rebuild vgo version catalog",
+        VISIBLE,
+        EXPOSED,
+        new RepositoryCombobox(
+            RepositoryTaskSupport.REPOSITORY_NAME_FIELD_ID,
+            "Repository",
+            "Select the vgo hosted repository to rebuild the version catalog of",
+            true
+        ).includingAnyOfFormats(VgoFormat.NAME).includingAnyOfTypes(HostedType.NAME).includeAnEntryForAllRepositories()
+    );
+  }
+}
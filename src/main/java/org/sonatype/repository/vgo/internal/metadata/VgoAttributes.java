@@ -19,6 +19,15 @@ package org.sonatype.repository.vgo.internal.metadata;
  */
 public final class VgoAttributes
 {
+  /**
+   * Format attribute holding the {@code h1:} hash of a zip or go.mod asset, as recorded in {@code go.sum}. It is only
+   * stored, to be seen when browsing and searching assets; it is not served, as the go command gets hashes from
+   * {@code go.sum} and the checksum database, never from the module proxy.
+   *
+   * @since 0.0.3
+   */
+  public static final String P_H1 = "h1";
+
   private String module;
   private String version;
 
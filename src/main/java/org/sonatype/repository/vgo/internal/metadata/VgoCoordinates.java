@@ -0,0 +1,164 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.metadata;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.repository.vgo.internal.util.VgoCaseEncoding;
+import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+import org.sonatype.repository.vgo.internal.util.VgoVersions;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.repository.vgo.internal.util.VgoPathUtils.VERSION_SEPARATOR;
+
+/**
+ * Immutable coordinates of a module version, parsed once per request, converting between the paths of the zip,
+ * go.mod and info of the version by concatenation only. These are the only builders of version paths, paths of the
+ * module as a whole are built by {@link VgoPathUtils}. Module and version are kept in the case encoded form
+ * assets are stored under, see {@link VgoCaseEncoding}, whatever the spelling they were created from.
+ *
+ * @since 0.0.3
+ */
+public final class VgoCoordinates
+{
+  private final String module;
+
+  private final String version;
+
+  /**
+   * The asset path of the version without extension, {@code <module>/@v/<version>}.
+   */
+  private final String base;
+
+  private VgoCoordinates(final String module, final String version) {
+    this.module = VgoCaseEncoding.normalize(checkNotNull(module));
+    this.version = VgoCaseEncoding.normalize(checkNotNull(version));
+    this.base = this.module + VERSION_SEPARATOR + this.version;
+  }
+
+  public static VgoCoordinates of(final String module, final String version) {
+    return new VgoCoordinates(module, version);
+  }
+
+  public static VgoCoordinates of(final VgoAttributes vgoAttributes) {
+    return new VgoCoordinates(vgoAttributes.getModule(), vgoAttributes.getVersion());
+  }
+
+  /**
+   * Parses an asset path with the given extension, e.g. the name of a zip in a bulk upload, {@code null} if the path
+   * is not of that form. Leading {@code /} and {@code ./} are ignored.
+   */
+  @Nullable
+  public static VgoCoordinates parse(final String path, final String extension) {
+    int start = 0;
+    while (true) {
+      if (path.startsWith("/", start)) {
+        start++;
+      }
+      else if (path.startsWith("./", start)) {
+        start += 2;
+      }
+      else {
+        break;
+      }
+    }
+    int end = path.length() - extension.length() - 1;
+    if (end <= start || path.charAt(end) != '.' || !path.endsWith(extension)) {
+      return null;
+    }
+    int separator = path.lastIndexOf(VERSION_SEPARATOR, end);
+    int versionStart = separator + VERSION_SEPARATOR.length();
+    if (separator <= start || versionStart >= end) {
+      return null;
+    }
+    int slash = path.indexOf('/', versionStart);
+    if (slash >= 0 && slash < end) {
+      return null;
+    }
+    return new VgoCoordinates(path.substring(start, separator), path.substring(versionStart, end));
+  }
+
+  public String getModule() {
+    return module;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the asset path of the version with the given extension.
+   */
+  public String path(final String extension) {
+    return base + '.' + extension;
+  }
+
+  public String zipPath() {
+    return path("zip");
+  }
+
+  public String modPath() {
+    return path("mod");
+  }
+
+  public String infoPath() {
+    return path("info");
+  }
+
+  /**
+   * Returns the name of the module root go.mod entry of the module zip, which is not case encoded.
+   */
+  public String goModEntryPath() {
+    return VgoCaseEncoding.decodeLeniently(module) + '@' + VgoCaseEncoding.decodeLeniently(version) + "/go.mod";
+  }
+
+  /**
+   * Returns whether the version is tagged, that is a valid version that is not a pseudo-version. The info, go.mod and
+   * zip of a tagged version never change once published.
+   */
+  public boolean isTagged() {
+    String decoded = VgoCaseEncoding.decodeLeniently(version);
+    return VgoVersions.isValid(decoded) && !VgoVersions.isPseudoVersion(decoded);
+  }
+
+  public VgoAttributes toAttributes() {
+    VgoAttributes vgoAttributes = new VgoAttributes();
+    vgoAttributes.setModule(module);
+    vgoAttributes.setVersion(version);
+    return vgoAttributes;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    VgoCoordinates that = (VgoCoordinates) o;
+    return module.equals(that.module) && version.equals(that.version);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(module, version);
+  }
+
+  @Override
+  public String toString() {
+    return base;
+  }
+}
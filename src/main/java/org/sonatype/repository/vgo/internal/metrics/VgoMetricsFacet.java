@@ -0,0 +1,227 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.metrics;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nullable;
+import javax.inject.Named;
+
+import org.sonatype.nexus.repository.Facet;
+import org.sonatype.nexus.repository.FacetSupport;
+import org.sonatype.repository.vgo.VgoAssetKind;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.Timer;
+
+/**
+ * Per repository latency and throughput metrics of vgo requests, broken down by {@link VgoAssetKind} and by the
+ * {@link Phase}s a request goes through, so it shows whether e.g. list lookups or zip extraction dominate.
+ *
+ * Timers, which hold a latency histogram along with the throughput, are registered in the {@code nexus} metric
+ * registry on first use as
+ * {@code org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet.<type>.<repository>.<kind>.<phase>}, where the
+ * kind is e.g. {@code package} or {@code list}. Responses are counted per status class as
+ * {@code <type>.<repository>.<kind>.responses.<status class>}. Work not done on behalf of a request for an asset kind,
+ * such as bulk uploads and background work, is recorded under the kind {@code other}.
+ *
+ * The asset kind of the request being handled by the current thread is tracked by {@link VgoMetricsHandler}, so
+ * facets record phases without passing the kind around.
+ *
+ * @since 0.0.3
+ */
+@Named
+@Facet.Exposed
+public class VgoMetricsFacet
+    extends FacetSupport
+{
+  /**
+   * Phases recorded per asset kind.
+   */
+  public enum Phase
+  {
+    /**
+     * Handling a download request, from routing to the response.
+     */
+    REQUEST,
+
+    /**
+     * Handling an upload request, from routing to the response.
+     */
+    UPLOAD,
+
+    /**
+     * Looking up an asset in the database, cache hits excluded.
+     */
+    DB_LOOKUP,
+
+    /**
+     * Opening the blob of an asset to be served.
+     */
+    BLOB_READ,
+
+    /**
+     * Fetching from the remote, until the response headers are received.
+     */
+    UPSTREAM_FETCH,
+
+    /**
+     * Extracting go.mod files and hashes from module zips, beyond what is done while the zip is being stored.
+     */
+    ZIP_EXTRACTION
+  }
+
+  private static final String METRIC_REGISTRY = "nexus";
+
+  private static final String OTHER = "other";
+
+  private static final VgoAssetKind[] KINDS = VgoAssetKind.values();
+
+  private static final Phase[] PHASES = Phase.values();
+
+  private static final int STATUS_CLASSES = 5;
+
+  private static final ThreadLocal<VgoAssetKind> CURRENT_KIND = new ThreadLocal<>();
+
+  private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>((KINDS.length + 1) * PHASES.length);
+
+  private final AtomicReferenceArray<Counter> responses =
+      new AtomicReferenceArray<>((KINDS.length + 1) * STATUS_CLASSES);
+
+  private final Set<String> metricNames = ConcurrentHashMap.newKeySet();
+
+  private volatile MetricRegistry registry;
+
+  private String metricPrefix;
+
+  @Override
+  protected void doStart() throws Exception {
+    super.doStart();
+    metricPrefix = MetricRegistry.name(getClass(), getRepository().getType().getValue(), getRepository().getName());
+    registry = SharedMetricRegistries.getOrCreate(METRIC_REGISTRY);
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    MetricRegistry stopped = registry;
+    registry = null;
+    // by name, as the metric names of another repository may start with the metric prefix of this one
+    metricNames.forEach(stopped::remove);
+    metricNames.clear();
+    for (int i = 0; i < timers.length(); i++) {
+      timers.set(i, null);
+    }
+    for (int i = 0; i < responses.length(); i++) {
+      responses.set(i, null);
+    }
+    super.doStop();
+  }
+
+  /**
+   * Records a phase of the request being handled by the current thread. Phases that may run outside of the request,
+   * e.g. in prefetches, refreshes or while a response is sent, pass their kind to
+   * {@link #update(VgoAssetKind, Phase, long)} instead.
+   *
+   * @param started {@link System#nanoTime()} when the phase started
+   */
+  public void update(final Phase phase, final long started) {
+    update(CURRENT_KIND.get(), phase, started);
+  }
+
+  /**
+   * Records a phase of work for an asset kind, {@code null} for work not done for a particular kind.
+   *
+   * @param started {@link System#nanoTime()} when the phase started
+   */
+  public void update(@Nullable final VgoAssetKind assetKind, final Phase phase, final long started) {
+    MetricRegistry metrics = registry;
+    if (metrics == null) {
+      return;
+    }
+    int index = index(assetKind) * PHASES.length + phase.ordinal();
+    Timer timer = timers.get(index);
+    if (timer == null) {
+      timer = metrics.timer(metricName(kindName(assetKind), phaseName(phase)));
+      timers.set(index, timer);
+    }
+    timer.update(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Counts a response to a request for an asset kind by its status class.
+   */
+  void count(@Nullable final VgoAssetKind assetKind, final int status) {
+    MetricRegistry metrics = registry;
+    if (metrics == null) {
+      return;
+    }
+    int statusClass = Math.max(1, Math.min(STATUS_CLASSES, status / 100));
+    int index = index(assetKind) * STATUS_CLASSES + statusClass - 1;
+    Counter counter = responses.get(index);
+    if (counter == null) {
+      counter = metrics.counter(metricName(kindName(assetKind), "responses", statusClass + "xx"));
+      responses.set(index, counter);
+    }
+    counter.inc();
+  }
+
+  /**
+   * Returns the name of a metric of the repository, remembering it to be removed on stop.
+   */
+  private String metricName(final String... names) {
+    String name = MetricRegistry.name(metricPrefix, names);
+    metricNames.add(name);
+    return name;
+  }
+
+  /**
+   * Sets the asset kind of the request handled by the current thread, returning the kind set before, which requests
+   * dispatched to group members have to restore.
+   */
+  @Nullable
+  static VgoAssetKind enter(@Nullable final VgoAssetKind assetKind) {
+    VgoAssetKind previous = CURRENT_KIND.get();
+    CURRENT_KIND.set(assetKind);
+    return previous;
+  }
+
+  /**
+   * Restores the asset kind returned by {@link #enter(VgoAssetKind)}.
+   */
+  static void exit(@Nullable final VgoAssetKind previous) {
+    if (previous == null) {
+      CURRENT_KIND.remove();
+    }
+    else {
+      CURRENT_KIND.set(previous);
+    }
+  }
+
+  private static int index(@Nullable final VgoAssetKind assetKind) {
+    return assetKind != null ? assetKind.ordinal() : KINDS.length;
+  }
+
+  static String kindName(@Nullable final VgoAssetKind assetKind) {
+    return assetKind != null ? assetKind.name().substring("VGO_".length()).toLowerCase(Locale.ENGLISH) : OTHER;
+  }
+
+  static String phaseName(final Phase phase) {
+    return phase.name().toLowerCase(Locale.ENGLISH);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.metrics;
+
+import javax.annotation.Nonnull;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Handler;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.repository.vgo.VgoAssetKind;
+import org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet.Phase;
+
+import static org.sonatype.nexus.repository.http.HttpMethods.GET;
+import static org.sonatype.nexus.repository.http.HttpMethods.HEAD;
+
+/**
+ * Records the latency and response status of requests in the {@link VgoMetricsFacet} of the repository, and tracks
+ * the asset kind of the request while it is handled so the phases of the request are recorded for its kind. Failures
+ * turned into responses further down the chain are counted by their status, others as server errors.
+ *
+ * @since 0.0.3
+ */
+@Named
+@Singleton
+public class VgoMetricsHandler
+    extends ComponentSupport
+    implements Handler
+{
+  @Nonnull
+  @Override
+  public Response handle(@Nonnull final Context context) throws Exception {
+    VgoMetricsFacet metrics = context.getRepository().facet(VgoMetricsFacet.class);
+    VgoAssetKind assetKind = context.getAttributes().get(VgoAssetKind.class);
+    String action = context.getRequest().getAction();
+    Phase phase = GET.equals(action) || HEAD.equals(action) ? Phase.REQUEST : Phase.UPLOAD;
+
+    VgoAssetKind previous = VgoMetricsFacet.enter(assetKind);
+    long started = System.nanoTime();
+    int status = 500;
+    try {
+      Response response = context.proceed();
+      status = response.getStatus().getCode();
+      return response;
+    }
+    finally {
+      metrics.update(assetKind, phase, started);
+      metrics.count(assetKind, status);
+      VgoMetricsFacet.exit(previous);
+    }
+  }
+}
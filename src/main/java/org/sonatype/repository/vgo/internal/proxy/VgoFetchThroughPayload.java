@@ -0,0 +1,330 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.proxy;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.repository.cache.CacheInfo;
+import org.sonatype.nexus.repository.storage.StorageTx;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.repository.view.Payload;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.payloads.StreamPayload;
+import org.sonatype.nexus.transaction.UnitOfWork;
+
+import com.google.common.base.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.net.HttpHeaders.RANGE;
+import static org.sonatype.nexus.repository.http.HttpMethods.GET;
+
+/**
+ * Payload of content fetched from the remote on a cache miss, which sends the remote response to the client while it
+ * is stored, rather than after. Copying the payload to the client reads the remote response once: every chunk is
+ * spooled to a temp blob and passed on to the client as it arrives. The asset is committed only if the remote sent as
+ * many bytes as it announced, so only responses of known size are fetched through. The content is not verified
+ * against a checksum before it is committed: Go module proxies announce none, the hashes of the blob are computed
+ * while spooling for storage only, and verifying modules against the checksum database is left to the go command.
+ *
+ * A client going away does not abort storing, the rest of the response is still spooled and stored. The payload can
+ * only be copied once, by the request that fetched it; requests coalesced with it wait for {@link #stored()}. The
+ * remote response must be {@link #retain(Content) retained} so that the proxy closing it once stored does not release
+ * it before it is sent. If copying does not start in time, the remote response is released and storing fails.
+ *
+ * @since 0.0.3
+ */
+class VgoFetchThroughPayload
+    extends ComponentSupport
+    implements Payload
+{
+  interface Store
+  {
+    Content store(Content content) throws IOException;
+  }
+
+  private final Content fetched;
+
+  private final Store store;
+
+  private final Supplier<StorageTx> txSupplier;
+
+  @Nullable
+  private final RetainedPayload retained;
+
+  private final AtomicBoolean started = new AtomicBoolean();
+
+  private final CompletableFuture<Content> stored = new CompletableFuture<>();
+
+  private final ScheduledFuture<?> expiry;
+
+  /**
+   * @param scheduler     runs the release of the remote response if copying does not start in time
+   * @param startTimeout  how long copying may take to start
+   */
+  VgoFetchThroughPayload(final Content fetched,
+                         final Store store,
+                         final Supplier<StorageTx> txSupplier,
+                         final ScheduledExecutorService scheduler,
+                         final long startTimeout,
+                         final TimeUnit unit)
+  {
+    this.fetched = checkNotNull(fetched);
+    this.store = checkNotNull(store);
+    this.txSupplier = checkNotNull(txSupplier);
+    checkArgument(fetched.getSize() >= 0, "Size of fetched content is unknown");
+    this.retained = fetched.getAttributes().get(RetainedPayload.class);
+    if (retained != null) {
+      retained.handedOver.set(true);
+    }
+    this.expiry = scheduler.schedule(this::expire, startTimeout, unit);
+  }
+
+  /**
+   * Whether the response to a request sends the whole content, which fetching through relies on to store it.
+   */
+  static boolean isWholeContent(final Request request) {
+    return GET.equals(request.getAction()) && request.getHeaders().get(RANGE) == null;
+  }
+
+  /**
+   * Returns content for the remote response that is only released when closed if it was not fetched through. Once
+   * handed over to a payload fetching it through, the payload releases it after sending it, or when it expires.
+   */
+  static Content retain(final Content remote) {
+    RetainedPayload payload = new RetainedPayload(remote);
+    Content content = new Content(payload);
+    copyAttributes(remote, content);
+    content.getAttributes().set(RetainedPayload.class, payload);
+    return content;
+  }
+
+  /**
+   * Returns content for this payload, with the attributes of the fetched content used for response headers.
+   */
+  Content toContent() {
+    Content content = new Content(this);
+    copyAttributes(fetched, content);
+    content.getAttributes().set(VgoFetchThroughPayload.class, this);
+    return content;
+  }
+
+  /**
+   * Returns the stage completed with the stored content once the payload was sent, or exceptionally if storing failed
+   * or sending did not start in time.
+   */
+  CompletionStage<Content> stored() {
+    return stored;
+  }
+
+  @Override
+  public InputStream openInputStream() throws IOException {
+    return fetched.openInputStream();
+  }
+
+  @Override
+  public long getSize() {
+    return fetched.getSize();
+  }
+
+  @Nullable
+  @Override
+  public String getContentType() {
+    return fetched.getContentType();
+  }
+
+  /**
+   * Stores the remote response read from the input, passing it on to the output as it is read. Runs in a unit of work
+   * of its own, as the response is sent after the unit of work of the request ended.
+   */
+  @Override
+  public void copy(final InputStream input, final OutputStream output) throws IOException {
+    if (!started.compareAndSet(false, true)) {
+      throw new IOException("Fetched content was released, it was not sent in time");
+    }
+    expiry.cancel(false);
+    ForwardingInputStream forwarding = new ForwardingInputStream(input, output, fetched.getSize());
+    Content teed = new Content(new StreamPayload(() -> forwarding, fetched.getSize(), fetched.getContentType()));
+    copyAttributes(fetched, teed);
+
+    UnitOfWork.begin(txSupplier);
+    try {
+      stored.complete(store.store(teed));
+    }
+    catch (IOException | RuntimeException | Error e) {
+      stored.completeExceptionally(e);
+      throw e;
+    }
+    finally {
+      UnitOfWork.end();
+      release();
+    }
+    if (forwarding.clientFailure != null) {
+      throw forwarding.clientFailure;
+    }
+  }
+
+  /**
+   * Releases the remote response and fails waiting requests, unless copying started.
+   */
+  private void expire() {
+    if (!started.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      // closing the response stream releases the remote connection
+      fetched.openInputStream().close();
+    }
+    catch (IOException | RuntimeException e) {
+      log.debug("Failed to release fetched content", e);
+    }
+    release();
+    stored.completeExceptionally(new TimeoutException("Fetched content was not sent in time"));
+  }
+
+  private void release() {
+    if (retained == null) {
+      return;
+    }
+    try {
+      retained.remote.close();
+    }
+    catch (IOException | RuntimeException e) {
+      log.debug("Failed to release fetched content", e);
+    }
+  }
+
+  private static void copyAttributes(final Content from, final Content to) {
+    CacheInfo cacheInfo = from.getAttributes().get(CacheInfo.class);
+    if (cacheInfo != null) {
+      to.getAttributes().set(CacheInfo.class, cacheInfo);
+    }
+    for (String key : new String[]{Content.CONTENT_LAST_MODIFIED, Content.CONTENT_ETAG}) {
+      Object value = from.getAttributes().get(key);
+      if (value != null) {
+        to.getAttributes().set(key, value);
+      }
+    }
+  }
+
+  /**
+   * Payload of a retained remote response, see {@link #retain(Content)}.
+   */
+  private static class RetainedPayload
+      implements Payload
+  {
+    private final Content remote;
+
+    private final AtomicBoolean handedOver = new AtomicBoolean();
+
+    RetainedPayload(final Content remote) {
+      this.remote = checkNotNull(remote);
+    }
+
+    @Override
+    public InputStream openInputStream() throws IOException {
+      return remote.openInputStream();
+    }
+
+    @Override
+    public long getSize() {
+      return remote.getSize();
+    }
+
+    @Nullable
+    @Override
+    public String getContentType() {
+      return remote.getContentType();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!handedOver.get()) {
+        remote.close();
+      }
+    }
+  }
+
+  /**
+   * Passes on what is read to the client, until writing to the client fails. Fails at the end of the stream if fewer
+   * or more bytes than announced were read, so truncated responses are never stored.
+   */
+  private class ForwardingInputStream
+      extends FilterInputStream
+  {
+    private final OutputStream client;
+
+    private final long expected;
+
+    private long count;
+
+    private IOException clientFailure;
+
+    ForwardingInputStream(final InputStream in, final OutputStream client, final long expected) {
+      super(in);
+      this.client = client;
+      this.expected = expected;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      int read = super.read(b, off, len);
+      if (read == -1) {
+        if (count != expected) {
+          throw new IOException("Remote sent " + count + " bytes, expected " + expected);
+        }
+        return -1;
+      }
+      count += read;
+      if (clientFailure == null) {
+        try {
+          client.write(b, off, read);
+        }
+        catch (IOException e) {
+          log.debug("Client went away, storing the rest of the remote response", e);
+          clientFailure = e;
+        }
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+      throw new IOException("Skipping would not pass the content on to the client");
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.proxy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.proxy.ProxyFacet;
+import org.sonatype.nexus.repository.storage.StorageFacet;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
+import org.sonatype.nexus.transaction.UnitOfWork;
+import org.sonatype.repository.vgo.VgoAssetKind;
+import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+import org.sonatype.repository.vgo.internal.metadata.VgoCoordinates;
+import org.sonatype.repository.vgo.internal.util.GoModParser;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.repository.http.HttpMethods.GET;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_INFO;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_MODULE;
+
+/**
+ * Warms a vgo proxy repository in the background with the {@code .mod} and {@code .info} of the modules required by
+ * the go.mod files it stores, so a build resolving its dependencies mostly hits local storage.
+ *
+ * Prefetch requests go through the {@link ProxyFacet} of the repository like client requests do, so cached content is
+ * not fetched again. Dependencies of prefetched go.mod files are followed up to a depth, the number of concurrent
+ * prefetches and their rate are bounded, and prefetches that do not fit into the queue are dropped.
+ *
+ * @since 0.0.3
+ */
+class VgoPrefetcher
+    extends ComponentSupport
+{
+  /**
+   * Context attribute holding the remaining depth of a prefetch request.
+   */
+  static final String PREFETCH_DEPTH = VgoPrefetcher.class.getName() + ".depth";
+
+  private static final int QUEUE_SIZE = 1024;
+
+  private final Repository repository;
+
+  private final RateLimiter rateLimiter;
+
+  private final ThreadPoolExecutor executor;
+
+  private final Cache<String, Boolean> scheduled = CacheBuilder.newBuilder()
+      .maximumSize(10_000)
+      .expireAfterWrite(10, TimeUnit.MINUTES)
+      .build();
+
+  VgoPrefetcher(final Repository repository,
+                final int concurrency,
+                final double permitsPerSecond)
+  {
+    checkArgument(concurrency > 0, "concurrency must be positive");
+    checkArgument(permitsPerSecond > 0, "permitsPerSecond must be positive");
+    this.repository = checkNotNull(repository);
+    this.rateLimiter = RateLimiter.create(permitsPerSecond);
+    this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(QUEUE_SIZE),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("vgo-prefetch-" + repository.getName() + "-%d")
+            .build());
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Schedules prefetching the modules required by a go.mod.
+   *
+   * @param depth the depth to pass on to the prefetched go.mod files, 0 stops following their requirements
+   */
+  void schedule(final Reader goMod, final int depth) throws IOException {
+    for (VgoAttributes require : GoModParser.parseRequires(goMod)) {
+      String key = require.getModule() + '@' + require.getVersion();
+      if (scheduled.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+        continue;
+      }
+      try {
+        executor.execute(() -> {
+          prefetch(require, VGO_MODULE, "mod", depth);
+          prefetch(require, VGO_INFO, "info", depth);
+        });
+      }
+      catch (RejectedExecutionException e) {
+        log.debug("Prefetch queue of {} is full, dropping {}", repository.getName(), key);
+        scheduled.invalidate(key);
+      }
+    }
+  }
+
+  void stop() {
+    executor.shutdownNow();
+  }
+
+  private void prefetch(final VgoAttributes require,
+                        final VgoAssetKind assetKind,
+                        final String extension,
+                        final int depth)
+  {
+    // requirements are plain module paths and versions, paths are case encoded
+    String path = "/" + VgoCoordinates.of(require.getModule(), require.getVersion()).path(extension);
+    Context context = new Context(repository, new Request.Builder().action(GET).path(path).build());
+    if (!new TokenMatcher("/{module:.+}/@v/{version:.+}.{extension:" + extension + "}").matches(context)) {
+      return;
+    }
+    context.getAttributes().set(VgoAssetKind.class, assetKind);
+    context.getAttributes().set(PREFETCH_DEPTH, depth);
+
+    rateLimiter.acquire();
+    UnitOfWork.begin(repository.facet(StorageFacet.class).txSupplier());
+    try {
+      repository.facet(ProxyFacet.class).get(context);
+    }
+    catch (Exception e) {
+      log.debug("Unable to prefetch {} into {}", path, repository.getName(), e);
+    }
+    finally {
+      UnitOfWork.end();
+    }
+  }
+}
@@ -13,32 +13,72 @@
 package org.sonatype.repository.vgo.internal.proxy;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.validation.constraints.Min;
 
+import org.sonatype.nexus.repository.cache.CacheController;
 import org.sonatype.nexus.repository.cache.CacheInfo;
 import org.sonatype.nexus.repository.config.Configuration;
+import org.sonatype.nexus.repository.config.ConfigurationFacet;
 import org.sonatype.nexus.repository.proxy.ProxyFacet;
 import org.sonatype.nexus.repository.proxy.ProxyFacetSupport;
 import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.Bucket;
+import org.sonatype.nexus.repository.storage.Component;
 import org.sonatype.nexus.repository.storage.StorageFacet;
 import org.sonatype.nexus.repository.storage.StorageTx;
 import org.sonatype.nexus.repository.storage.TempBlob;
+import org.sonatype.nexus.repository.transaction.TransactionalStoreBlob;
 import org.sonatype.nexus.repository.transaction.TransactionalTouchBlob;
 import org.sonatype.nexus.repository.transaction.TransactionalTouchMetadata;
 import org.sonatype.nexus.repository.view.Content;
 import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Payload;
+import org.sonatype.nexus.repository.view.Request;
 import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
+import org.sonatype.nexus.repository.view.payloads.StreamPayload;
+import org.sonatype.nexus.transaction.Transactional;
 import org.sonatype.nexus.transaction.UnitOfWork;
 import org.sonatype.repository.vgo.VgoAssetKind;
+import org.sonatype.repository.vgo.internal.cache.VgoAssetCacheFacet;
 import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+import org.sonatype.repository.vgo.internal.metadata.VgoCoordinates;
+import org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet;
+import org.sonatype.repository.vgo.internal.util.ReopeningSeekableByteChannel;
+import org.sonatype.repository.vgo.internal.util.SingleFlight;
 import org.sonatype.repository.vgo.internal.util.VgoDataAccess;
 import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+import org.sonatype.repository.vgo.internal.util.ZipEntryCapture;
+import org.sonatype.repository.vgo.internal.util.ZipScanningInputStream;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.net.HttpHeaders.RANGE;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.sonatype.nexus.repository.view.ContentTypes.TEXT_PLAIN;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_INFO;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_LIST;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_MODULE;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_PACKAGE;
+import static org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet.Phase.UPSTREAM_FETCH;
+import static org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet.Phase.ZIP_EXTRACTION;
+import static org.sonatype.repository.vgo.internal.util.CompressedContentExtractor.MAX_GO_MOD_SIZE;
+import static org.sonatype.repository.vgo.internal.util.CompressedContentExtractor.extractEntry;
 import static org.sonatype.repository.vgo.internal.util.VgoDataAccess.HASH_ALGORITHMS;
 
 /**
@@ -50,10 +90,88 @@ import static org.sonatype.repository.vgo.internal.util.VgoDataAccess.HASH_ALGOR
 public class VgoProxyFacetImpl
     extends ProxyFacetSupport
 {
+  static final String CONFIG_KEY = "vgo";
+
+  /**
+   * Cache controller for immutable content, which never becomes stale and is not affected by cache invalidation.
+   */
+  private static final CacheController IMMUTABLE = new CacheController(-1, null);
+
+  /**
+   * How long content fetched through may take to start being sent, before the remote response is released.
+   */
+  private static final long FETCH_THROUGH_START_SECONDS = 30;
+
+  private final SingleFlight<String, Content> inFlight = new SingleFlight<>();
+
   private final VgoPathUtils vgoPathUtils;
 
   private final VgoDataAccess vgoDataAccess;
 
+  private Config vgoConfig;
+
+  private VgoPrefetcher prefetcher;
+
+  private VgoRevalidator revalidator;
+
+  private ScheduledExecutorService fetchThroughExpiry;
+
+  /**
+   * vgo proxy specific configuration.
+   *
+   * @since 0.0.3
+   */
+  @VisibleForTesting
+  static class Config
+  {
+    /**
+     * Whether a fetched zip also stores the go.mod of the module version and prefetches its info, so those are not
+     * requested from the remote separately.
+     */
+    public boolean deriveMetadata;
+
+    /**
+     * How many levels of requirements of stored go.mod files are prefetched in the background, 0 disables prefetching.
+     */
+    @Min(0)
+    public int prefetchDepth;
+
+    /**
+     * Maximum number of concurrent prefetches.
+     */
+    @Min(1)
+    public int prefetchConcurrency = 4;
+
+    /**
+     * Maximum number of prefetches started per second.
+     */
+    @Min(1)
+    public int prefetchRate = 10;
+
+    /**
+     * Whether stale lists and infos are served right away and refreshed in the background, rather than after
+     * revalidating them with the remote.
+     */
+    public boolean staleWhileRevalidate;
+
+    /**
+     * Whether zips fetched from the remote are sent to the client while they are stored, rather than after.
+     */
+    public boolean fetchThrough;
+
+    @Override
+    public String toString() {
+      return getClass().getSimpleName() + "{" +
+          "deriveMetadata=" + deriveMetadata +
+          ", prefetchDepth=" + prefetchDepth +
+          ", prefetchConcurrency=" + prefetchConcurrency +
+          ", prefetchRate=" + prefetchRate +
+          ", staleWhileRevalidate=" + staleWhileRevalidate +
+          ", fetchThrough=" + fetchThrough +
+          '}';
+    }
+  }
+
   @Inject
   public VgoProxyFacetImpl(final VgoPathUtils vgoPathUtils,
                            final VgoDataAccess vgoDataAccess)
@@ -66,38 +184,281 @@ public class VgoProxyFacetImpl
   @Override
   protected void doValidate(final Configuration configuration) throws Exception {
     super.doValidate(configuration);
+    facet(ConfigurationFacet.class).validateSection(configuration, CONFIG_KEY, Config.class);
+  }
+
+  @Override
+  protected void doConfigure(final Configuration configuration) throws Exception {
+    super.doConfigure(configuration);
+    vgoConfig = facet(ConfigurationFacet.class).readSection(configuration, CONFIG_KEY, Config.class);
+    log.debug("vgo config: {}", vgoConfig);
+  }
+
+  @Override
+  protected void doStart() throws Exception {
+    super.doStart();
+    if (vgoConfig.prefetchDepth > 0) {
+      prefetcher = new VgoPrefetcher(getRepository(), vgoConfig.prefetchConcurrency, vgoConfig.prefetchRate);
+    }
+    if (vgoConfig.staleWhileRevalidate) {
+      revalidator = new VgoRevalidator(getRepository(), this::getCoalesced);
+    }
+    if (vgoConfig.fetchThrough) {
+      fetchThroughExpiry = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+          .setNameFormat("vgo-fetch-through-" + getRepository().getName() + "-%d").build());
+    }
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    if (prefetcher != null) {
+      prefetcher.stop();
+      prefetcher = null;
+    }
+    if (revalidator != null) {
+      revalidator.stop();
+      revalidator = null;
+    }
+    if (fetchThroughExpiry != null) {
+      fetchThroughExpiry.shutdownNow();
+      fetchThroughExpiry = null;
+    }
+    super.doStop();
+  }
+
+  @Override
+  protected void doDestroy() throws Exception {
+    vgoConfig = null;
+    super.doDestroy();
+  }
+
+  @Nonnull
+  @Override
+  protected CacheController getCacheController(@Nonnull final Context context) {
+    if (vgoPathUtils.isImmutable(context)) {
+      return IMMUTABLE;
+    }
+    VgoAssetKind assetKind = context.getAttributes().require(VgoAssetKind.class);
+    return checkNotNull(cacheControllerHolder.get(assetKind.getCacheType()));
+  }
+
+  /**
+   * Serves stale lists and infos right away when stale-while-revalidate is enabled, scheduling their refresh in the
+   * background, and otherwise gets the content as {@link #getCoalesced(Context)} does.
+   */
+  @Nullable
+  @Override
+  public Content get(@Nonnull final Context context) throws IOException {
+    VgoRevalidator revalidator = this.revalidator;
+    if (revalidator != null && isRevalidatedInBackground(context.getAttributes().require(VgoAssetKind.class))) {
+      Content cached = getCachedContent(context);
+      if (cached != null) {
+        CacheInfo cacheInfo = cached.getAttributes().get(CacheInfo.class);
+        if (cacheInfo == null || getCacheController(context).isStale(cacheInfo)) {
+          revalidator.schedule(assetPath(context), context);
+        }
+        return cached;
+      }
+    }
+    return getCoalesced(context);
+  }
+
+  private static boolean isRevalidatedInBackground(final VgoAssetKind assetKind) {
+    return assetKind == VGO_LIST || assetKind == VGO_INFO;
+  }
+
+  /**
+   * Coalesces concurrent requests for the same asset, so a cache miss fetches from upstream and writes to storage
+   * once. Requests arriving while the asset is fetched wait for it to be stored, this includes background refreshes of
+   * stale content and requests arriving while a zip fetched through is sent. Fresh cached content is returned right away, only misses and stale content are coalesced,
+   * separately for requests of the whole content, of ranges and of headers only.
+   */
+  @Nullable
+  private Content getCoalesced(final Context context) throws IOException {
+    Content cached = getCachedContent(context);
+    if (cached != null) {
+      CacheInfo cacheInfo = cached.getAttributes().get(CacheInfo.class);
+      if (cacheInfo != null && !getCacheController(context).isStale(cacheInfo)) {
+        return cached;
+      }
+    }
+    try {
+      AtomicBoolean leading = new AtomicBoolean();
+      Content content = inFlight.run(flightKey(context), () -> {
+        leading.set(true);
+        return getUncoalesced(context);
+      }, VgoProxyFacetImpl::stored);
+      return leading.get() ? content : follow(context, content);
+    }
+    catch (IOException | RuntimeException e) {
+      throw e;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    }
+    catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Gets the content as {@link ProxyFacetSupport} does, fetching and storing it on a cache miss.
+   */
+  @Nullable
+  @VisibleForTesting
+  Content getUncoalesced(final Context context) throws IOException {
+    return super.get(context);
+  }
+
+  /**
+   * Returns the key requests are coalesced by, the asset path qualified by what the request sends of the content.
+   */
+  private String flightKey(final Context context) {
+    Request request = context.getRequest();
+    String kind = request.getHeaders().get(RANGE) != null ? "RANGE" : request.getAction();
+    return kind + ' ' + assetPath(context);
+  }
+
+  /**
+   * Returns the stage a flight lands on: content fetched through is in flight until it is sent and stored.
+   */
+  @Nullable
+  private static CompletionStage<Content> stored(@Nullable final Content content) {
+    VgoFetchThroughPayload fetchThrough = content != null ? content.getAttributes().get(VgoFetchThroughPayload.class)
+        : null;
+    return fetchThrough != null ? fetchThrough.stored() : null;
+  }
+
+  /**
+   * Returns content of its own to a request that waited for another request to get the content, as the content
+   * carries its asset, which is marked downloaded and saved. The content the other request got is only returned if
+   * the asset can not be read, unless it was fetched through: it is sent by the request that fetched it only, so the
+   * content is got again.
+   */
+  @Nullable
+  private Content follow(final Context context, @Nullable final Content shared) throws IOException {
+    if (shared == null) {
+      return null;
+    }
+    Content own = getCachedContent(context);
+    if (own != null) {
+      return own;
+    }
+    if (shared.getAttributes().get(VgoFetchThroughPayload.class) != null) {
+      log.debug("Fetching {} through was not stored, getting it again", assetPath(context));
+      return getUncoalesced(context);
+    }
+    return shared;
+  }
+
+  /**
+   * Retains the remote response of content that may be fetched through, see
+   * {@link VgoFetchThroughPayload#retain(Content)}.
+   */
+  @Nullable
+  @Override
+  protected Content fetch(final Context context, @Nullable final Content stale) throws IOException {
+    Content remote = super.fetch(context, stale);
+    return remote != null && isFetchedThrough(context, remote) ? VgoFetchThroughPayload.retain(remote) : remote;
+  }
+
+  @Nullable
+  @Override
+  protected Content fetch(final String url, final Context context, @Nullable final Content stale) throws IOException {
+    return fetch(url, context, stale, context.getAttributes().require(VgoAssetKind.class));
+  }
+
+  /**
+   * Fetches from the remote, recording the fetch for the kind of asset fetched, as fetches also run for prefetches
+   * and refreshes outside of the request being measured.
+   */
+  @Nullable
+  private Content fetch(final String url,
+                        final Context context,
+                        @Nullable final Content stale,
+                        final VgoAssetKind assetKind) throws IOException
+  {
+    long started = System.nanoTime();
+    try {
+      return super.fetch(url, context, stale);
+    }
+    finally {
+      facet(VgoMetricsFacet.class).update(assetKind, UPSTREAM_FETCH, started);
+    }
   }
 
   @Nullable
   @Override
   protected Content getCachedContent(final Context context) throws IOException {
+    return getAsset(assetPath(context));
+  }
+
+  @Override
+  protected Content store(final Context context, final Content content) throws IOException {
     VgoAssetKind assetKind = context.getAttributes().require(VgoAssetKind.class);
-    TokenMatcher.State matcherState = vgoPathUtils.matcherState(context);
+    String assetPath = assetPath(context);
+
+    ScheduledExecutorService expiry = fetchThroughExpiry;
+    if (expiry != null && isFetchedThrough(context, content)) {
+      return new VgoFetchThroughPayload(content, teed -> storeFetched(context, assetKind, assetPath, teed),
+          facet(StorageFacet.class).txSupplier(), expiry, FETCH_THROUGH_START_SECONDS, SECONDS).toContent();
+    }
+    return storeFetched(context, assetKind, assetPath, content);
+  }
+
+  private boolean isFetchedThrough(final Context context, final Content content) {
+    return fetchThroughExpiry != null
+        && context.getAttributes().require(VgoAssetKind.class) == VGO_PACKAGE
+        && content.getSize() >= 0
+        && VgoFetchThroughPayload.isWholeContent(context.getRequest());
+  }
+
+  private Content storeFetched(final Context context,
+                               final VgoAssetKind assetKind,
+                               final String assetPath,
+                               final Content content) throws IOException
+  {
     switch (assetKind) {
+      case VGO_PACKAGE:
+        if (vgoConfig.deriveMetadata) {
+          VgoAttributes vgoAttributes = vgoPathUtils.coordinates(context).toAttributes();
+          Content stored = putPackageWithModule(context, vgoAttributes, content, assetPath);
+          prefetchInfo(context, vgoAttributes);
+          return stored;
+        }
+        // fall through
       case VGO_INFO:
       case VGO_MODULE:
-      case VGO_PACKAGE:
-        return getAsset(vgoPathUtils.assetPath(matcherState));
-      case VGO_LIST:
-        return getAsset(vgoPathUtils.listPath(matcherState));
+        VgoAttributes vgoAttributes = vgoPathUtils.coordinates(context).toAttributes();
+        Content stored = putComponent(vgoAttributes, content, assetPath, assetKind);
+        if (assetKind == VGO_MODULE) {
+          prefetch(context, stored);
+        }
+        return stored;
       default:
-        throw new IllegalStateException("Received an invalid VgoAssetKind of type: " + assetKind.name());
+        return putAsset(content, assetPath, assetKind);
     }
   }
 
-  @Override
-  protected Content store(final Context context, final Content content) throws IOException {
+  /**
+   * Returns the path of the asset a request is served from.
+   */
+  private String assetPath(final Context context) {
     VgoAssetKind assetKind = context.getAttributes().require(VgoAssetKind.class);
     TokenMatcher.State matcherState = vgoPathUtils.matcherState(context);
-
     switch (assetKind) {
       case VGO_INFO:
       case VGO_MODULE:
       case VGO_PACKAGE:
-        VgoAttributes vgoAttributes = vgoPathUtils.getAttributesFromMatcherState(matcherState);
-        return putComponent(vgoAttributes, content, vgoPathUtils.assetPath(matcherState), assetKind);
+        return vgoPathUtils.coordinates(context).path(vgoPathUtils.extension(matcherState));
       case VGO_LIST:
-        return putAsset(content, vgoPathUtils.listPath(matcherState), assetKind);
+        return vgoPathUtils.listPath(matcherState);
+      case VGO_LATEST:
+        return vgoPathUtils.latestPath(matcherState);
+      case VGO_SUMDB:
+      case VGO_SUMDB_TILE:
+        return vgoPathUtils.sumdbPath(matcherState);
       default:
         throw new IllegalStateException("Received an invalid VgoAssetKind of type: " + assetKind.name());
     }
@@ -105,14 +466,7 @@ public class VgoProxyFacetImpl
 
   @TransactionalTouchBlob
   protected Content getAsset(final String path) {
-    StorageTx tx = UnitOfWork.currentTx();
-
-    Asset asset = vgoDataAccess.findAsset(tx, tx.findBucket(getRepository()), path);
-    if (asset == null) {
-      return null;
-    }
-
-    return vgoDataAccess.toContent(asset, tx.requireBlob(asset.requireBlobRef()));
+    return facet(VgoAssetCacheFacet.class).getContent(UnitOfWork.currentTx(), path);
   }
 
   private Content putAsset(final Content content,
@@ -128,6 +482,9 @@ public class VgoProxyFacetImpl
           content
       );
     }
+    finally {
+      facet(VgoAssetCacheFacet.class).invalidate(assetPath);
+    }
   }
 
   private Content putComponent(final VgoAttributes vgoAttributes,
@@ -144,6 +501,124 @@ public class VgoProxyFacetImpl
           content,
           assetKind);
     }
+    finally {
+      facet(VgoAssetCacheFacet.class).invalidate(assetPath);
+    }
+  }
+
+  /**
+   * Stores a fetched zip along with the module root go.mod extracted from it while it is being stored. The go.mod
+   * gets the cache info of the zip, as it can not change independently of it. The go.mod is spooled to disk rather
+   * than buffered, so the heap used does not depend on its size.
+   */
+  private Content putPackageWithModule(final Context context,
+                                       final VgoAttributes vgoAttributes,
+                                       final Content content,
+                                       final String assetPath) throws IOException
+  {
+    StorageFacet storageFacet = facet(StorageFacet.class);
+    String goModEntryPath = VgoCoordinates.of(vgoAttributes).goModEntryPath();
+
+    try (ZipEntryCapture goMod = new ZipEntryCapture(goModEntryPath, MAX_GO_MOD_SIZE);
+         ZipScanningInputStream in = new ZipScanningInputStream(content.openInputStream(), goMod);
+         TempBlob zipBlob = storageFacet.createTempBlob(in, HASH_ALGORITHMS)) {
+      if (!in.isScanned()) {
+        long started = System.nanoTime();
+        long size = zipBlob.getBlob().getMetrics().getContentSize();
+        extractEntry(new ReopeningSeekableByteChannel(zipBlob, size), goModEntryPath, MAX_GO_MOD_SIZE, goMod);
+        facet(VgoMetricsFacet.class).update(VGO_PACKAGE, ZIP_EXTRACTION, started);
+      }
+      if (!goMod.isCaptured()) {
+        log.debug("No module root go.mod found in {}", assetPath);
+        try {
+          return vgoDataAccess.doCreateOrSaveComponent(getRepository(), vgoAttributes, assetPath, zipBlob, content,
+              VGO_PACKAGE);
+        }
+        finally {
+          facet(VgoAssetCacheFacet.class).invalidate(assetPath);
+        }
+      }
+
+      Content modContent = new Content(new StreamPayload(goMod::openStream, goMod.getSize(), TEXT_PLAIN));
+      modContent.getAttributes().set(CacheInfo.class, content.getAttributes().get(CacheInfo.class));
+      Content stored;
+      try (TempBlob modBlob = storageFacet.createTempBlob(modContent, HASH_ALGORITHMS)) {
+        stored = savePackageWithModule(vgoAttributes, assetPath, zipBlob, content, modBlob, modContent);
+      }
+      finally {
+        VgoAssetCacheFacet assetCache = facet(VgoAssetCacheFacet.class);
+        assetCache.invalidate(assetPath);
+        assetCache.invalidate(VgoCoordinates.of(vgoAttributes).modPath());
+      }
+      prefetch(context, modContent);
+      return stored;
+    }
+  }
+
+  /**
+   * Schedules prefetching the requirements of a stored go.mod, if prefetching is enabled and the depth of the request
+   * storing it allows.
+   */
+  private void prefetch(final Context context, final Payload goMod) throws IOException {
+    if (prefetcher == null) {
+      return;
+    }
+    Integer depth = context.getAttributes().get(VgoPrefetcher.PREFETCH_DEPTH, Integer.class);
+    int remaining = depth != null ? depth : vgoConfig.prefetchDepth;
+    if (remaining > 0) {
+      try (Reader reader = new InputStreamReader(
+          ByteStreams.limit(goMod.openInputStream(), MAX_GO_MOD_SIZE), UTF_8)) {
+        prefetcher.schedule(reader, remaining - 1);
+      }
+    }
+  }
+
+  @TransactionalStoreBlob
+  protected Content savePackageWithModule(final VgoAttributes vgoAttributes,
+                                          final String assetPath,
+                                          final TempBlob zipBlob,
+                                          final Content content,
+                                          final TempBlob modBlob,
+                                          final Content modContent) throws IOException
+  {
+    StorageTx tx = UnitOfWork.currentTx();
+    Bucket bucket = tx.findBucket(getRepository());
+
+    Component component = vgoDataAccess.findOrCreateComponent(tx, getRepository(), bucket, vgoAttributes);
+
+    String modPath = VgoCoordinates.of(vgoAttributes).modPath();
+    vgoDataAccess.createOrSaveComponentAsset(tx, bucket, component, modPath, modBlob, modContent, VGO_MODULE);
+
+    return vgoDataAccess.createOrSaveComponentAsset(tx, bucket, component, assetPath, zipBlob, content, VGO_PACKAGE);
+  }
+
+  /**
+   * Fetches and stores the info of a module version unless it is cached already. Failures are only logged, as the
+   * info is requested from the remote again when it is needed.
+   */
+  private void prefetchInfo(final Context context, final VgoAttributes vgoAttributes) {
+    String infoPath = VgoCoordinates.of(vgoAttributes).infoPath();
+    try {
+      if (isCached(infoPath)) {
+        return;
+      }
+      Content info = fetch(infoPath, context, null, VGO_INFO);
+      if (info == null) {
+        log.debug("No info found upstream for {}", infoPath);
+        return;
+      }
+      info.getAttributes().set(CacheInfo.class, cacheControllerHolder.get(VGO_INFO.getCacheType()).current());
+      putComponent(vgoAttributes, info, infoPath, VGO_INFO);
+    }
+    catch (IOException e) {
+      log.debug("Unable to prefetch {}", infoPath, e);
+    }
+  }
+
+  @Transactional
+  protected boolean isCached(final String path) {
+    StorageTx tx = UnitOfWork.currentTx();
+    return vgoDataAccess.findAsset(tx, tx.findBucket(getRepository()), path) != null;
   }
 
   @Override
@@ -166,11 +641,16 @@ public class VgoProxyFacetImpl
     log.debug("Updating cacheInfo of {} to {}", asset, cacheInfo);
     CacheInfo.applyToAsset(asset, cacheInfo);
     tx.saveAsset(asset);
+    facet(VgoAssetCacheFacet.class).invalidate(asset.name());
   }
 
+  /**
+   * Requests the path of the asset from the remote, so module paths and versions are case encoded as module proxies
+   * expect, whatever the spelling of the request.
+   */
   @Override
   protected String getUrl(@Nonnull final Context context) {
-    return context.getRequest().getPath().substring(1);
+    return assetPath(context);
   }
 
 }
@@ -63,6 +63,8 @@ class VgoProxyRecipe
     repository.attach(httpClientFacet.get())
     repository.attach(negativeCacheFacet.get())
     repository.attach(componentMaintenanceFacet.get())
+    repository.attach(assetCacheFacet.get())
+    repository.attach(metricsFacet.get())
     repository.attach(proxyFacet.get())
     repository.attach(storageFacet.get())
     repository.attach(searchFacet.get())
@@ -76,13 +78,15 @@ class VgoProxyRecipe
   private ViewFacet configure(final ConfigurableViewFacet facet) {
     Router.Builder builder = new Router.Builder()
 
-    [infoMatcher(), packageMatcher(), moduleMatcher(), listMatcher()].each { matcher ->
+    [infoMatcher(), packageMatcher(), moduleMatcher(), listMatcher(), latestMatcher()].each { matcher ->
       builder.route(new Route.Builder().matcher(matcher)
           .handler(timingHandler)
+          .handler(metricsHandler)
           .handler(securityHandler)
           .handler(exceptionHandler)
           .handler(handlerContributor)
           .handler(negativeCacheHandler)
+          .handler(immutableContentHandler)
           .handler(partialFetchHandler)
           .handler(contentHeadersHandler)
           .handler(unitOfWorkHandler)
@@ -91,6 +95,22 @@ class VgoProxyRecipe
           .create())
     }
 
+    [sumdbMatcher(), sumdbTileMatcher()].each { matcher ->
+      builder.route(new Route.Builder().matcher(matcher)
+          .handler(timingHandler)
+          .handler(metricsHandler)
+          .handler(securityHandler)
+          .handler(exceptionHandler)
+          .handler(handlerContributor)
+          .handler(negativeCacheHandler)
+          .handler(immutableContentHandler)
+          .handler(partialFetchHandler)
+          .handler(contentHeadersHandler)
+          .handler(unitOfWorkHandler)
+          .handler(proxyHandler)
+          .create())
+    }
+
     builder.route(new Route.Builder()
         .matcher(BrowseUnsupportedHandler.MATCHER)
         .handler(browseUnsupportedHandler)
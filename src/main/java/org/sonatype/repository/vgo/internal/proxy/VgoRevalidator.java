@@ -0,0 +1,114 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.proxy;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.sonatype.goodies.common.ComponentSupport;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.storage.StorageFacet;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
+import org.sonatype.nexus.transaction.UnitOfWork;
+import org.sonatype.repository.vgo.VgoAssetKind;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sonatype.nexus.repository.http.HttpMethods.GET;
+
+/**
+ * Refreshes stale metadata of a vgo proxy repository in the background, while the stale content is served.
+ *
+ * At most one refresh per asset is scheduled at a time, further requests for an asset being refreshed are served the
+ * stale content without scheduling another. Refreshes that do not fit into the queue are dropped, the next request
+ * for the asset schedules it again.
+ *
+ * @since 0.0.3
+ */
+class VgoRevalidator
+    extends ComponentSupport
+{
+  interface Refresh
+  {
+    void refresh(Context context) throws Exception;
+  }
+
+  private static final int THREADS = 2;
+
+  private static final int QUEUE_SIZE = 1024;
+
+  private final Repository repository;
+
+  private final Refresh refresh;
+
+  private final ThreadPoolExecutor executor;
+
+  private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+
+  VgoRevalidator(final Repository repository, final Refresh refresh) {
+    this.repository = checkNotNull(repository);
+    this.refresh = checkNotNull(refresh);
+    this.executor = new ThreadPoolExecutor(THREADS, THREADS, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(QUEUE_SIZE),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("vgo-revalidate-" + repository.getName() + "-%d")
+            .build());
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Schedules refreshing the asset a request is served from, unless a refresh of it is scheduled already.
+   */
+  void schedule(final String assetPath, final Context context) {
+    if (!scheduled.add(assetPath)) {
+      return;
+    }
+    // the request context only lives as long as the request, refresh with a copy of what identifies the asset
+    Context refreshContext = new Context(repository,
+        new Request.Builder().action(GET).path(context.getRequest().getPath()).build());
+    refreshContext.getAttributes().set(VgoAssetKind.class, context.getAttributes().require(VgoAssetKind.class));
+    refreshContext.getAttributes()
+        .set(TokenMatcher.State.class, context.getAttributes().require(TokenMatcher.State.class));
+    try {
+      executor.execute(() -> refresh(assetPath, refreshContext));
+    }
+    catch (RejectedExecutionException e) {
+      log.debug("Revalidation queue of {} is full, dropping {}", repository.getName(), assetPath);
+      scheduled.remove(assetPath);
+    }
+  }
+
+  void stop() {
+    executor.shutdownNow();
+  }
+
+  private void refresh(final String assetPath, final Context context) {
+    UnitOfWork.begin(repository.facet(StorageFacet.class).txSupplier());
+    try {
+      refresh.refresh(context);
+    }
+    catch (Exception e) {
+      log.debug("Unable to revalidate {} in {}", assetPath, repository.getName(), e);
+    }
+    finally {
+      UnitOfWork.end();
+      scheduled.remove(assetPath);
+    }
+  }
+}
@@ -12,19 +12,19 @@
  */
 package org.sonatype.repository.vgo.internal.util;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.nio.channels.SeekableByteChannel;
 
 import javax.annotation.Nullable;
 
 import org.sonatype.goodies.common.ComponentSupport;
-import org.sonatype.goodies.common.Loggers;
+import org.sonatype.repository.vgo.internal.util.ZipScanningInputStream.EntryHandler;
 
-import org.slf4j.Logger;
+import com.google.common.io.ByteStreams;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 
 /**
  * Extracts a file from a zip image
@@ -34,43 +34,107 @@ import org.slf4j.Logger;
 public class CompressedContentExtractor
     extends ComponentSupport
 {
-  private static final Logger logger = Loggers.getLogger(CompressedContentExtractor.class);
+  /**
+   * Largest go.mod accepted, same as the limit of the go tool.
+   *
+   * @since 0.0.3
+   */
+  public static final int MAX_GO_MOD_SIZE = 16 << 20;
+
+  private static final int BUFFER_SIZE = 8192;
 
   /**
-   * Extracts a file from a zip image
-   * @param projectAsStream zip file as a stream
-   * @param fileName file to extract
-   * @return stream of extracted file
+   * Streams a single entry of a zip to an {@link EntryHandler}, using the central directory of the zip to seek to the
+   * entry. The entry is passed on in chunks of a fixed size buffer, so e.g. a {@link ZipEntryCapture} extracts it
+   * without holding it in memory. Entries declaring a size above {@code maxSize} are skipped, and at most one byte more
+   * than {@code maxSize} is inflated, so the handler sees an oversized entry without the whole entry being inflated.
+   *
+   * @param zip       zip file as a channel, closed once extracted
+   * @param entryName exact name of the entry to extract
+   * @param maxSize   largest entry accepted
+   * @param handler   receives the entry, if it is found and requested by the handler
+   * @return {@code true} if the entry was found and passed on
+   * @since 0.0.3
    */
-  @Nullable
-  public static InputStream extractFile(final InputStream projectAsStream, final String fileName) {
-    try (ZipInputStream zipInputStream = new ZipInputStream(projectAsStream)) {
-      ZipEntry nextEntry = zipInputStream.getNextEntry();
-      while (nextEntry != null) {
-        if (nextEntry.getName().endsWith(fileName)) {
-          ByteArrayOutputStream outputStream = extractEntry(zipInputStream);
-          return new ByteArrayInputStream(outputStream.toByteArray());
+  public static boolean extractEntry(final SeekableByteChannel zip,
+                                     final String entryName,
+                                     final long maxSize,
+                                     final EntryHandler handler) throws IOException
+  {
+    try (ZipFile zipFile = new ZipFile(zip)) {
+      ZipArchiveEntry entry = zipFile.getEntry(entryName);
+      if (entry == null || entry.isDirectory() || entry.getSize() > maxSize) {
+        return false;
+      }
+      if (handler.startEntry(entryName)) {
+        try (InputStream entryStream = ByteStreams.limit(zipFile.getInputStream(entry), maxSize + 1)) {
+          byte[] buffer = new byte[BUFFER_SIZE];
+          int read;
+          while ((read = entryStream.read(buffer)) >= 0) {
+            handler.content(buffer, 0, read);
+          }
         }
-        zipInputStream.closeEntry();
-        nextEntry = zipInputStream.getNextEntry();
+        handler.endEntry();
       }
+      return true;
     }
-    catch (IOException e) {
-      logger.warn("Unable to uncompress zip", e);
+  }
+
+  /**
+   * Returns the uncompressed size of a single entry of a zip, as recorded in the central directory of the zip.
+   *
+   * @param zip       zip file as a channel, closed once read
+   * @param entryName exact name of the entry
+   * @param maxSize   largest entry accepted
+   * @return size of the entry, {@code -1} if not found or larger than {@code maxSize}
+   * @since 0.0.3
+   */
+  public static long entrySize(final SeekableByteChannel zip,
+                               final String entryName,
+                               final long maxSize) throws IOException
+  {
+    try (ZipFile zipFile = new ZipFile(zip)) {
+      ZipArchiveEntry entry = zipFile.getEntry(entryName);
+      if (entry == null || entry.isDirectory() || entry.getSize() < 0 || entry.getSize() > maxSize) {
+        return -1;
+      }
+      return entry.getSize();
     }
-    return null;
   }
 
-  private static ByteArrayOutputStream extractEntry(final ZipInputStream zipInputStream) throws IOException {
-    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-    byte[] bytes = new byte[1024];
-    while(true) {
-      int read = zipInputStream.read(bytes);
-      if (read < 0) {
-        break;
+  /**
+   * Opens a single entry of a zip for streaming, limited to the size recorded in the central directory of the zip.
+   *
+   * @param zip       zip file as a channel, closed when the returned stream is closed
+   * @param entryName exact name of the entry
+   * @return stream of the entry, {@code null} if not found
+   * @since 0.0.3
+   */
+  @Nullable
+  public static InputStream openEntry(final SeekableByteChannel zip, final String entryName) throws IOException {
+    ZipFile zipFile = new ZipFile(zip);
+    try {
+      ZipArchiveEntry entry = zipFile.getEntry(entryName);
+      if (entry == null || entry.isDirectory() || entry.getSize() < 0) {
+        zipFile.close();
+        return null;
       }
-      outputStream.write(bytes, 0, read);
+      return new FilterInputStream(ByteStreams.limit(zipFile.getInputStream(entry), entry.getSize()))
+      {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          }
+          finally {
+            zipFile.close();
+          }
+        }
+      };
+    }
+    catch (IOException | RuntimeException e) {
+      zipFile.close();
+      throw e;
     }
-    return outputStream;
   }
 }
@@ -0,0 +1,216 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.repository.vgo.internal.util.ZipScanningInputStream.EntryHandler;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.UnsignedBytes;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Computes the {@code h1:} hashes go uses to verify modules (see {@code golang.org/x/mod/sumdb/dirhash}), i.e. the
+ * hashes recorded in {@code go.sum} for module zips and go.mod files.
+ *
+ * @since 0.0.3
+ */
+public final class DirHash
+{
+  public static final String H1_PREFIX = "h1:";
+
+  private static final String GO_MOD = "go.mod";
+
+  private static final Comparator<byte[]> GO_ORDER = UnsignedBytes.lexicographicalComparator();
+
+  private DirHash() {
+    // empty
+  }
+
+  /**
+   * Returns the {@code h1:} hash of a go.mod file, as recorded in the {@code /go.mod} lines of {@code go.sum}.
+   */
+  public static String hashGoMod(final byte[] goMod) {
+    return hashGoMod(Hashing.sha256().hashBytes(goMod));
+  }
+
+  /**
+   * Returns the {@code h1:} hash of a go.mod file from the SHA-256 of its content, e.g. as computed by a
+   * {@link ZipEntryCapture}.
+   */
+  public static String hashGoMod(final HashCode sha256) {
+    return hash1(Collections.singletonList(new SimpleImmutableEntry<>(GO_MOD, sha256.toString())));
+  }
+
+  /**
+   * Returns the {@code h1:} hash of a module zip read through its central directory, {@code null} if it cannot be
+   * hashed. Prefer {@link ZipHashHandler} to hash a zip while it streams by.
+   *
+   * @param zip module zip as a channel, closed once hashed
+   */
+  @Nullable
+  public static String hashZip(final SeekableByteChannel zip) throws IOException {
+    List<Entry<String, String>> files = new ArrayList<>();
+    try (ZipFile zipFile = new ZipFile(zip)) {
+      Enumeration<ZipArchiveEntry> entries = zipFile.getEntries();
+      while (entries.hasMoreElements()) {
+        ZipArchiveEntry entry = entries.nextElement();
+        HashingOutputStream hash = new HashingOutputStream(Hashing.sha256(), ByteStreams.nullOutputStream());
+        try (InputStream in = zipFile.getInputStream(entry)) {
+          ByteStreams.copy(in, hash);
+        }
+        files.add(new SimpleImmutableEntry<>(entry.getName(), hash.hash().toString()));
+      }
+    }
+    return hash1(files);
+  }
+
+  /**
+   * Hashes a list of file names and the hex encoded SHA-256 of their content the way {@code dirhash.Hash1} does.
+   */
+  @Nullable
+  private static String hash1(final List<Entry<String, String>> files) {
+    List<Entry<String, String>> sorted = new ArrayList<>(files);
+    sorted.sort((a, b) -> GO_ORDER.compare(a.getKey().getBytes(UTF_8), b.getKey().getBytes(UTF_8)));
+
+    Hasher summary = Hashing.sha256().newHasher();
+    for (Entry<String, String> file : sorted) {
+      if (file.getKey().contains("\n")) {
+        return null;
+      }
+      summary.putString(file.getValue() + "  " + file.getKey() + "\n", UTF_8);
+    }
+    return H1_PREFIX + BaseEncoding.base64().encode(summary.hash().asBytes());
+  }
+
+  /**
+   * {@link EntryHandler} computing the {@code h1:} hash of a module zip from its entries.
+   *
+   * The entries are scanned from their local headers, while go hashes the entries of the central directory. Check
+   * {@link #matchesCentralDirectory(SeekableByteChannel)} before relying on the hash, and hash the zip through its
+   * central directory with {@link #hashZip(SeekableByteChannel)} if it does not match.
+   */
+  public static class ZipHashHandler
+      implements EntryHandler
+  {
+    private final List<Entry<String, String>> files = new ArrayList<>();
+
+    private final Map<String, List<Long>> scanned = new HashMap<>();
+
+    private final CRC32 crc = new CRC32();
+
+    private boolean duplicates;
+
+    private String name;
+
+    private Hasher hasher;
+
+    private long size;
+
+    @Override
+    public boolean startEntry(final String name) {
+      this.name = name;
+      this.hasher = Hashing.sha256().newHasher();
+      crc.reset();
+      size = 0;
+      return true;
+    }
+
+    @Override
+    public void content(final byte[] bytes, final int offset, final int length) {
+      hasher.putBytes(bytes, offset, length);
+      crc.update(bytes, offset, length);
+      size += length;
+    }
+
+    @Override
+    public void endEntry() {
+      files.add(new SimpleImmutableEntry<>(name, hasher.hash().toString()));
+      hasher = null;
+    }
+
+    @Override
+    public void entryLocation(final long dataOffset, final long compressedSize) {
+      if (scanned.put(name, location(crc.getValue(), compressedSize, size, dataOffset)) != null) {
+        duplicates = true;
+      }
+    }
+
+    /**
+     * Returns whether the scanned entries are exactly the entries of the central directory of the zip: the same names
+     * with the same CRC-32, compressed and uncompressed sizes, at the same offsets. Only the central directory and the
+     * local headers it points to are read. Zips with duplicate or stale local entries, or with local entries differing
+     * from the central directory in any way, do not match.
+     *
+     * @param zip module zip as a channel, closed once read
+     */
+    public boolean matchesCentralDirectory(final SeekableByteChannel zip) throws IOException {
+      if (duplicates) {
+        return false;
+      }
+      Map<String, List<Long>> central = new HashMap<>();
+      try (ZipFile zipFile = new ZipFile(zip)) {
+        Enumeration<ZipArchiveEntry> entries = zipFile.getEntries();
+        while (entries.hasMoreElements()) {
+          ZipArchiveEntry entry = entries.nextElement();
+          List<Long> location = location(entry.getCrc(), entry.getCompressedSize(), entry.getSize(),
+              entry.getDataOffset());
+          if (central.put(entry.getName(), location) != null) {
+            return false;
+          }
+        }
+      }
+      return central.equals(scanned);
+    }
+
+    private static List<Long> location(final long crc,
+                                       final long compressedSize,
+                                       final long size,
+                                       final long dataOffset)
+    {
+      return Arrays.asList(crc, compressedSize, size, dataOffset);
+    }
+
+    /**
+     * Returns the hash of the zip, only meaningful when every entry of the zip was scanned.
+     */
+    @Nullable
+    public String getHash() {
+      return hash1(files);
+    }
+  }
+}
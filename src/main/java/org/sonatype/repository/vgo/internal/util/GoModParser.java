@@ -0,0 +1,116 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+
+/**
+ * Minimal go.mod parser, reading the modules required by a go.mod.
+ *
+ * @since 0.0.3
+ */
+public final class GoModParser
+{
+  private static final String REQUIRE = "require";
+
+  private GoModParser() {
+    // empty
+  }
+
+  /**
+   * Returns the modules and versions named by the {@code require} directives of a go.mod, both single line directives
+   * and blocks, in the order they appear. Malformed lines are skipped.
+   */
+  public static List<VgoAttributes> parseRequires(final String goMod) {
+    try {
+      return parseRequires(new StringReader(goMod));
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Same as {@link #parseRequires(String)}, reading the go.mod line by line so it is never held in memory as a whole.
+   */
+  public static List<VgoAttributes> parseRequires(final Reader goMod) throws IOException {
+    List<VgoAttributes> requires = new ArrayList<>();
+    boolean inBlock = false;
+    BufferedReader reader = new BufferedReader(goMod);
+    String rawLine;
+    while ((rawLine = reader.readLine()) != null) {
+      String line = stripComment(rawLine).trim();
+      if (inBlock) {
+        if (line.equals(")")) {
+          inBlock = false;
+        }
+        else {
+          addRequire(requires, line);
+        }
+      }
+      else if (isDirective(line, REQUIRE)) {
+        String rest = line.substring(REQUIRE.length()).trim();
+        if (rest.equals("(")) {
+          inBlock = true;
+        }
+        else {
+          addRequire(requires, rest);
+        }
+      }
+    }
+    return requires;
+  }
+
+  private static boolean isDirective(final String line, final String directive) {
+    return line.startsWith(directive)
+        && (line.length() == directive.length() || Character.isWhitespace(line.charAt(directive.length()))
+        || line.charAt(directive.length()) == '(');
+  }
+
+  private static void addRequire(final List<VgoAttributes> requires, final String line) {
+    String[] parts = line.split("\\s+");
+    if (parts.length != 2) {
+      return;
+    }
+    String module = unquote(parts[0]);
+    String version = unquote(parts[1]);
+    if (module.isEmpty() || !VgoVersions.isValid(version)) {
+      return;
+    }
+    VgoAttributes require = new VgoAttributes();
+    require.setModule(module);
+    require.setVersion(version);
+    requires.add(require);
+  }
+
+  private static String stripComment(final String line) {
+    int comment = line.indexOf("//");
+    return comment >= 0 ? line.substring(0, comment) : line;
+  }
+
+  private static String unquote(final String value) {
+    if (value.length() >= 2 && (value.charAt(0) == '"' || value.charAt(0) == '`')
+        && value.charAt(value.length() - 1) == value.charAt(0)) {
+      return value.substring(1, value.length() - 1);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+import com.google.common.base.Supplier;
+import com.google.common.io.ByteStreams;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Read only {@link SeekableByteChannel} over content that can only be opened as a stream, such as a blob.
+ *
+ * Seeking forward skips on the current stream, seeking backward opens a new stream. Blob stores backed by files skip
+ * without reading, so random access reads only touch the requested bytes.
+ *
+ * @since 0.0.3
+ */
+public class ReopeningSeekableByteChannel
+    implements SeekableByteChannel
+{
+  private final Supplier<InputStream> streamSupplier;
+
+  private final long size;
+
+  private InputStream stream;
+
+  private long streamPosition;
+
+  private long position;
+
+  private boolean open = true;
+
+  public ReopeningSeekableByteChannel(final Supplier<InputStream> streamSupplier, final long size) {
+    checkArgument(size >= 0);
+    this.streamSupplier = checkNotNull(streamSupplier);
+    this.size = size;
+  }
+
+  @Override
+  public int read(final ByteBuffer dst) throws IOException {
+    ensureOpen();
+    if (position >= size) {
+      return -1;
+    }
+    int length = (int) Math.min(dst.remaining(), size - position);
+    if (length == 0) {
+      return 0;
+    }
+    seek();
+
+    int read;
+    if (dst.hasArray()) {
+      read = stream.read(dst.array(), dst.arrayOffset() + dst.position(), length);
+      if (read > 0) {
+        dst.position(dst.position() + read);
+      }
+    }
+    else {
+      byte[] buffer = new byte[length];
+      read = stream.read(buffer, 0, length);
+      if (read > 0) {
+        dst.put(buffer, 0, read);
+      }
+    }
+    if (read < 0) {
+      return -1;
+    }
+    position += read;
+    streamPosition += read;
+    return read;
+  }
+
+  private void seek() throws IOException {
+    if (stream == null || streamPosition > position) {
+      closeStream();
+      stream = streamSupplier.get();
+      streamPosition = 0;
+    }
+    if (streamPosition < position) {
+      ByteStreams.skipFully(stream, position - streamPosition);
+      streamPosition = position;
+    }
+  }
+
+  @Override
+  public int write(final ByteBuffer src) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position() throws IOException {
+    ensureOpen();
+    return position;
+  }
+
+  @Override
+  public SeekableByteChannel position(final long newPosition) throws IOException {
+    ensureOpen();
+    checkArgument(newPosition >= 0);
+    position = newPosition;
+    return this;
+  }
+
+  @Override
+  public long size() throws IOException {
+    ensureOpen();
+    return size;
+  }
+
+  @Override
+  public SeekableByteChannel truncate(final long size) {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return open;
+  }
+
+  @Override
+  public void close() throws IOException {
+    open = false;
+    closeStream();
+  }
+
+  private void closeStream() throws IOException {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+    }
+  }
+
+  private void ensureOpen() throws ClosedChannelException {
+    if (!open) {
+      throw new ClosedChannelException();
+    }
+  }
+}
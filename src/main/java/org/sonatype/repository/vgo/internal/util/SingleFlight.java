@@ -0,0 +1,99 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call, callers arriving while it runs wait
+ * for and share its result, or its failure. Once the call completes the key is free again, results are not cached.
+ *
+ * @since 0.0.3
+ */
+public class SingleFlight<K, V>
+{
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Runs the call for the key, unless a call for the key is already running, in which case its outcome is shared.
+   */
+  public V run(final K key, final Callable<V> call) throws Exception {
+    return run(key, call, result -> null);
+  }
+
+  /**
+   * Runs the call for the key as {@link #run(Object, Callable)} does, but keeps the key in flight until the stage
+   * {@code landing} returns for the result completes, however it completes. The caller running the call gets the
+   * result right away, callers arriving meanwhile get it once the stage completed. A {@code null} stage lands the
+   * result right away.
+   */
+  public V run(final K key,
+               final Callable<V> call,
+               final Function<? super V, ? extends CompletionStage<?>> landing) throws Exception
+  {
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+    if (running != null) {
+      return await(running);
+    }
+    V result;
+    CompletionStage<?> landed;
+    try {
+      result = call.call();
+      landed = landing.apply(result);
+    }
+    catch (Exception | Error e) {
+      flight.completeExceptionally(e);
+      inFlight.remove(key, flight);
+      throw e;
+    }
+    if (landed == null) {
+      land(key, flight, result);
+    }
+    else {
+      landed.whenComplete((ignored, failure) -> land(key, flight, result));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of keys with a running call.
+   */
+  public int size() {
+    return inFlight.size();
+  }
+
+  private void land(final K key, final CompletableFuture<V> flight, final V result) {
+    flight.complete(result);
+    inFlight.remove(key, flight);
+  }
+
+  private V await(final CompletableFuture<V> running) throws Exception {
+    try {
+      return running.get();
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw (Exception) cause;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import javax.annotation.Nullable;
+
+/**
+ * The case encoding of module paths and versions in module proxy paths, where an upper case letter is written as
+ * {@code !} followed by the letter in lower case, e.g. {@code github.com/!azure/azure-sdk-for-go}, so paths stay
+ * unique on case insensitive file systems.
+ *
+ * The encoded form is the one the go command requests and the one assets are stored under. {@link #normalize(String)}
+ * maps any spelling of a path, encoded, plain or a mix of both, to the encoded form, so requests for the same module
+ * are served from the same assets.
+ *
+ * @since 0.0.3
+ */
+public final class VgoCaseEncoding
+{
+  private static final char ESCAPE = '!';
+
+  private VgoCaseEncoding() {
+    // no instances
+  }
+
+  /**
+   * Encodes a module path or version, returning it as is when it has no upper case letters.
+   */
+  public static String encode(final String value) {
+    int first = firstUpperCase(value);
+    if (first < 0) {
+      return value;
+    }
+    StringBuilder encoded = new StringBuilder(value.length() + 8).append(value, 0, first);
+    for (int i = first; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= 'A' && c <= 'Z') {
+        encoded.append(ESCAPE).append((char) (c + ('a' - 'A')));
+      }
+      else {
+        encoded.append(c);
+      }
+    }
+    return encoded.toString();
+  }
+
+  /**
+   * Decodes an encoded module path or version, {@code null} if it is not validly encoded, i.e. has an upper case
+   * letter or a {@code !} not followed by a lower case letter.
+   */
+  @Nullable
+  public static String decode(final String value) {
+    return decode(value, false);
+  }
+
+  /**
+   * Decodes an encoded module path or version, returning it as is if it is not validly encoded.
+   */
+  public static String decodeLeniently(final String value) {
+    String decoded = decode(value, true);
+    return decoded != null ? decoded : value;
+  }
+
+  /**
+   * Returns the encoded form of a module path or version in any spelling, {@code !} not followed by a lower case
+   * letter is kept as is.
+   */
+  public static String normalize(final String value) {
+    return encode(value.indexOf(ESCAPE) < 0 ? value : decodeLeniently(value));
+  }
+
+  @Nullable
+  private static String decode(final String value, final boolean lenient) {
+    int first = value.indexOf(ESCAPE);
+    if (first < 0) {
+      return lenient || firstUpperCase(value) < 0 ? value : null;
+    }
+    if (!lenient && firstUpperCase(value) >= 0) {
+      return null;
+    }
+    StringBuilder decoded = new StringBuilder(value.length()).append(value, 0, first);
+    for (int i = first; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == ESCAPE) {
+        char next = i + 1 < value.length() ? value.charAt(i + 1) : 0;
+        if (next >= 'a' && next <= 'z') {
+          decoded.append((char) (next - ('a' - 'A')));
+          i++;
+          continue;
+        }
+        if (!lenient) {
+          return null;
+        }
+      }
+      decoded.append(c);
+    }
+    return decoded.toString();
+  }
+
+  private static int firstUpperCase(final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= 'A' && c <= 'Z') {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
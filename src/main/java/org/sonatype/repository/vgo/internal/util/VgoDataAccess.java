@@ -92,22 +92,6 @@ public class VgoDataAccess
     return tx.findAssetWithProperty(MetadataNodeEntityAdapter.P_NAME, assetName, bucket);
   }
 
-  /**
-   * Finds all the assets for a given module
-   *
-   * @return assets associated with a given module
-   */
-  public Iterable<Asset> findAssetsForModule(final StorageTx tx,
-                                             final Repository repository,
-                                             final String moduleName)
-  {
-    Query query = Query.builder()
-        .where(P_NAME).like(moduleName + "/%")
-        .build();
-
-    return tx.findAssets(query, ImmutableList.of(repository));
-  }
-
   /**
    * Save an asset and create blob.
    *
@@ -132,10 +116,15 @@ public class VgoDataAccess
     return saveAsset(tx, asset, tempBlob, payload);
   }
 
-  private Content saveAsset(final StorageTx tx,
-                            final Asset asset,
-                            final Supplier<InputStream> contentSupplier,
-                            final Payload payload) throws IOException
+  /**
+   * Save an asset and create blob.
+   *
+   * @return blob content
+   */
+  public Content saveAsset(final StorageTx tx,
+                           final Asset asset,
+                           final Supplier<InputStream> contentSupplier,
+                           @Nullable final Payload payload) throws IOException
   {
     AttributesMap contentAttributes = null;
     String contentType = null;
@@ -171,7 +160,9 @@ public class VgoDataAccess
    * @return content of asset blob
    */
   public Content toContent(final Asset asset, final Blob blob) {
-    Content content = new Content(new BlobPayload(blob, asset.requireContentType()));
+    String contentType = asset.requireContentType();
+    Content content = new Content(VgoAssetKind.VGO_PACKAGE.name().equals(asset.formatAttributes().get(P_ASSET_KIND))
+        ? new VgoPackagePayload(blob, contentType) : new BlobPayload(blob, contentType));
     Content.extractFromAsset(asset, HASH_ALGORITHMS, content.getAttributes());
     return content;
   }
@@ -187,6 +178,21 @@ public class VgoDataAccess
     StorageTx tx = UnitOfWork.currentTx();
     Bucket bucket = tx.findBucket(repository);
 
+    Component component = findOrCreateComponent(tx, repository, bucket, vgoAttributes);
+
+    return createOrSaveComponentAsset(tx, bucket, component, assetPath, tempBlob, payload, assetKind);
+  }
+
+  /**
+   * Find the component of a module version, creating it if it does not exist yet.
+   *
+   * @return found or created component
+   */
+  public Component findOrCreateComponent(final StorageTx tx,
+                                         final Repository repository,
+                                         final Bucket bucket,
+                                         final VgoAttributes vgoAttributes)
+  {
     Component component = findComponent(tx,
         repository,
         vgoAttributes.getModule(),
@@ -198,14 +204,44 @@ public class VgoDataAccess
           .version(vgoAttributes.getVersion());
       tx.saveComponent(component);
     }
+    return component;
+  }
+
+  /**
+   * Save an asset of a component and create blob.
+   *
+   * @return blob content
+   */
+  public Content createOrSaveComponentAsset(final StorageTx tx,
+                                            final Bucket bucket,
+                                            final Component component,
+                                            final String assetPath,
+                                            final TempBlob tempBlob,
+                                            @Nullable final Payload payload,
+                                            final VgoAssetKind assetKind) throws IOException
+  {
+    Asset asset = findOrCreateAsset(tx, bucket, component, assetPath, assetKind);
+    return saveAsset(tx, asset, tempBlob, payload);
+  }
 
+  /**
+   * Find an asset of a component by its name, creating it if it does not exist yet. A created asset is not saved.
+   *
+   * @return found or created asset
+   */
+  public Asset findOrCreateAsset(final StorageTx tx,
+                                 final Bucket bucket,
+                                 final Component component,
+                                 final String assetPath,
+                                 final VgoAssetKind assetKind)
+  {
     Asset asset = findAsset(tx, bucket, assetPath);
     if (asset == null) {
       asset = tx.createAsset(bucket, component);
       asset.name(assetPath);
       asset.formatAttributes().set(P_ASSET_KIND, assetKind.name());
     }
-    return saveAsset(tx, asset, tempBlob, payload);
+    return asset;
   }
 
   public Payload getBlobAsPayload(final StorageTx tx, final Asset asset) {
@@ -0,0 +1,54 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.repository.view.payloads.BlobPayload;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * {@link BlobPayload} for module zips, copied to the response in large chunks.
+ *
+ * File blob stores hand out buffered streams with an 8 KiB buffer, which the default copy matches one for one. Module
+ * zips are the largest content served, so reading in larger chunks lets reads bypass the stream buffer and hands the
+ * servlet output writes big enough to skip its aggregation buffer. Range requests are unaffected: the partial fetch
+ * handler replaces this payload with its own, which skips to and limits the requested range.
+ *
+ * @since 0.0.3
+ */
+public class VgoPackagePayload
+    extends BlobPayload
+{
+  @VisibleForTesting
+  static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  public VgoPackagePayload(final Blob blob, @Nullable final String contentType) {
+    super(blob, contentType);
+  }
+
+  @Override
+  public void copy(final InputStream input, final OutputStream output) throws IOException {
+    byte[] buffer = new byte[COPY_BUFFER_SIZE];
+    int read;
+    while ((read = input.read(buffer)) != -1) {
+      output.write(buffer, 0, read);
+    }
+  }
+}
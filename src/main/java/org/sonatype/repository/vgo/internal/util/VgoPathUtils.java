@@ -12,17 +12,22 @@
  */
 package org.sonatype.repository.vgo.internal.util;
 
+import javax.annotation.Nullable;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
+import org.sonatype.repository.vgo.VgoAssetKind;
 import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+import org.sonatype.repository.vgo.internal.metadata.VgoCoordinates;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
- * Utility methods for working with Vgo routes and paths.
+ * Utility methods for working with Vgo routes and paths. Paths are built by concatenation, as they are built several
+ * times per request. Paths of a module version are built by {@link VgoCoordinates}, only paths of a module as a whole
+ * are built here.
  *
  * @since 0.0.1
  */
@@ -30,19 +35,31 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @Singleton
 public class VgoPathUtils
 {
+  /**
+   * Separates the module from the version (or list) part of a vgo path.
+   */
+  public static final String VERSION_SEPARATOR = "/@v/";
+
+  /**
+   * Ends the latest path of a module.
+   */
+  public static final String LATEST_SUFFIX = "/@latest";
+
+  private static final String LIST_SUFFIX = VERSION_SEPARATOR + "list";
+
   /**
    * Returns the module from a {@link
-   * TokenMatcher.State}.
+   * TokenMatcher.State}, case encoded as it is stored, whatever the spelling of the request.
    */
   public String module(final TokenMatcher.State state) {
-    return match(state, "module");
+    return VgoCaseEncoding.normalize(match(state, "module"));
   }
 
   /**
-   * Returns the version from a {@link TokenMatcher.State}.
+   * Returns the version from a {@link TokenMatcher.State}, case encoded as it is stored.
    */
   public String version(final TokenMatcher.State state) {
-    return match(state, "version");
+    return VgoCaseEncoding.normalize(match(state, "version"));
   }
 
   /**
@@ -57,21 +74,88 @@ public class VgoPathUtils
    * Builds a vgo asset path from a {@link TokenMatcher.State}.
    */
   public String assetPath(final TokenMatcher.State state) {
-    String module = module(state);
-    String version = version(state);
-    String extension = extension(state);
-    String fullPath = String.format("%s/@v/%s.%s", module, version, extension);
-
-    return fullPath;
+    return VgoCoordinates.of(match(state, "module"), match(state, "version")).path(extension(state));
   }
 
   /**
    * Builds a vgo list path from a {@link TokenMatcher.State}.
    */
   public String listPath(final TokenMatcher.State state) {
-    String module = module(state);
+    return listPath(module(state));
+  }
+
+  /**
+   * Builds a vgo list path for a module.
+   */
+  public String listPath(final String module) {
+    return module + LIST_SUFFIX;
+  }
+
+  /**
+   * Builds a vgo latest path from a {@link TokenMatcher.State}.
+   */
+  public String latestPath(final TokenMatcher.State state) {
+    return latestPath(module(state));
+  }
+
+  /**
+   * Builds a vgo latest path for a module.
+   */
+  public String latestPath(final String module) {
+    return module + LATEST_SUFFIX;
+  }
+
+  /**
+   * Builds a checksum database path from a {@link TokenMatcher.State}.
+   */
+  public String sumdbPath(final TokenMatcher.State state) {
+    return "sumdb/" + match(state, "sumdb") + '/' + match(state, "path");
+  }
 
-    return String.format("%s/@v/list", module);
+  /**
+   * Returns the module and version of a vgo asset path with the given extension, e.g. the name of a zip in a bulk
+   * upload, {@code null} if the path is not of that form. Leading {@code /} and {@code ./} are ignored.
+   *
+   * @since 0.0.3
+   */
+  @Nullable
+  public VgoAttributes attributesFromPath(final String path, final String extension) {
+    VgoCoordinates coordinates = VgoCoordinates.parse(path, extension);
+    return coordinates != null ? coordinates.toAttributes() : null;
+  }
+
+  /**
+   * Returns the coordinates of the module version a request is for, parsed from its {@link TokenMatcher.State} on
+   * first use and kept in the context for the rest of the request.
+   *
+   * @since 0.0.3
+   */
+  public VgoCoordinates coordinates(final Context context) {
+    VgoCoordinates coordinates = context.getAttributes().get(VgoCoordinates.class);
+    if (coordinates == null) {
+      TokenMatcher.State state = matcherState(context);
+      coordinates = VgoCoordinates.of(module(state), version(state));
+      context.getAttributes().set(VgoCoordinates.class, coordinates);
+    }
+    return coordinates;
+  }
+
+  /**
+   * Returns whether the content a request is for never changes once published: content of immutable asset kinds, and
+   * the info, go.mod and zip of tagged versions. Pseudo-versions keep expiring like other metadata.
+   *
+   * @since 0.0.3
+   */
+  public boolean isImmutable(final Context context) {
+    VgoAssetKind assetKind = context.getAttributes().require(VgoAssetKind.class);
+    switch (assetKind) {
+      case VGO_INFO:
+      case VGO_MODULE:
+      case VGO_PACKAGE:
+        return coordinates(context).isTagged();
+      default:
+        return assetKind.isImmutable();
+    }
   }
 
   /**
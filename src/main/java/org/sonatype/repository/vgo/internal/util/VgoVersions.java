@@ -0,0 +1,288 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.util.Comparator;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Semantic version handling following the rules of the go command: versions are compared as semver with an optional
+ * {@code v1} or {@code v1.2} shorthand, build metadata is ignored, and invalid versions sort before valid ones.
+ *
+ * Versions are expected as the go command knows them ({@code v1.0.0-RC1}); versions case encoded as in paths
+ * ({@code v1.0.0-!r!c1}) must be decoded with {@link VgoCaseEncoding#decode(String)} first, comparing or choosing
+ * among them is rejected.
+ *
+ * @since 0.0.3
+ */
+public final class VgoVersions
+{
+  private static final char ESCAPE = '!';
+
+  private static final Pattern PSEUDO_VERSION = Pattern.compile(
+      "^v[0-9]+\\.(0\\.0-|\\d+\\.\\d+-([^+]*\\.)?0\\.)\\d{14}-[A-Za-z0-9]+(\\+[0-9A-Za-z-]+(\\.[0-9A-Za-z-]+)*)?$");
+
+  /**
+   * Orders decoded versions by semantic version precedence, falling back to string order between versions of equal
+   * precedence so distinct strings never compare equal.
+   */
+  public static final Comparator<String> SEMVER_ORDER = (a, b) -> {
+    int result = compare(a, b);
+    return result != 0 ? result : a.compareTo(b);
+  };
+
+  private VgoVersions() {
+    // empty
+  }
+
+  /**
+   * Compares two decoded versions by semantic version precedence. Invalid versions are equal to each other and lower
+   * than any valid version.
+   *
+   * @throws IllegalArgumentException if a version is case encoded
+   */
+  public static int compare(final String a, final String b) {
+    checkDecoded(a);
+    checkDecoded(b);
+    Version va = parse(a);
+    Version vb = parse(b);
+    if (va == null || vb == null) {
+      return va == null ? (vb == null ? 0 : -1) : 1;
+    }
+    int result = compareNumber(va.major, vb.major);
+    if (result == 0) {
+      result = compareNumber(va.minor, vb.minor);
+    }
+    if (result == 0) {
+      result = compareNumber(va.patch, vb.patch);
+    }
+    if (result == 0) {
+      result = comparePrerelease(va.prerelease, vb.prerelease);
+    }
+    return result;
+  }
+
+  /**
+   * Returns whether the version is a valid semantic version in the form accepted by the go command.
+   */
+  public static boolean isValid(final String version) {
+    return parse(version) != null;
+  }
+
+  /**
+   * Returns whether the version is a release, that is a valid version without prerelease.
+   */
+  public static boolean isRelease(final String version) {
+    Version parsed = parse(version);
+    return parsed != null && parsed.prerelease.isEmpty();
+  }
+
+  /**
+   * Returns whether the version is a pseudo-version generated for an untagged revision.
+   */
+  public static boolean isPseudoVersion(final String version) {
+    return isValid(version) && PSEUDO_VERSION.matcher(version).matches();
+  }
+
+  /**
+   * Returns whether the version is as the go command knows it, rather than case encoded as in paths.
+   */
+  public static boolean isDecoded(final String version) {
+    return version.indexOf(ESCAPE) < 0;
+  }
+
+  /**
+   * Returns the decoded version {@code @latest} resolves to: the highest release, otherwise the highest prerelease,
+   * otherwise the highest pseudo-version. Invalid versions are never chosen.
+   *
+   * @throws IllegalArgumentException if a version is case encoded
+   */
+  @Nullable
+  public static String latest(final Iterable<String> versions) {
+    String release = null;
+    String prerelease = null;
+    String pseudo = null;
+    for (String version : versions) {
+      checkDecoded(version);
+      if (!isValid(version)) {
+        continue;
+      }
+      if (isRelease(version)) {
+        release = max(release, version);
+      }
+      else if (isPseudoVersion(version)) {
+        pseudo = max(pseudo, version);
+      }
+      else {
+        prerelease = max(prerelease, version);
+      }
+    }
+    return release != null ? release : prerelease != null ? prerelease : pseudo;
+  }
+
+  private static void checkDecoded(final String version) {
+    checkArgument(version == null || isDecoded(version), "Case encoded version: %s", version);
+  }
+
+  private static String max(@Nullable final String current, final String candidate) {
+    return current == null || SEMVER_ORDER.compare(candidate, current) > 0 ? candidate : current;
+  }
+
+  private static final class Version
+  {
+    private String major;
+
+    private String minor = "0";
+
+    private String patch = "0";
+
+    private String prerelease = "";
+  }
+
+  @Nullable
+  private static Version parse(final String version) {
+    if (version == null || version.length() < 2 || version.charAt(0) != 'v') {
+      return null;
+    }
+    Version parsed = new Version();
+    int[] pos = { 1 };
+    parsed.major = number(version, pos);
+    if (parsed.major == null) {
+      return null;
+    }
+    if (pos[0] == version.length()) {
+      return parsed;
+    }
+    if (version.charAt(pos[0]++) != '.' || (parsed.minor = number(version, pos)) == null) {
+      return null;
+    }
+    if (pos[0] == version.length()) {
+      return parsed;
+    }
+    if (version.charAt(pos[0]++) != '.' || (parsed.patch = number(version, pos)) == null) {
+      return null;
+    }
+    int end = version.length();
+    int build = version.indexOf('+', pos[0]);
+    if (build >= 0) {
+      if (!identifiers(version, build + 1, end, false)) {
+        return null;
+      }
+      end = build;
+    }
+    if (pos[0] < end) {
+      if (version.charAt(pos[0]) != '-' || !identifiers(version, pos[0] + 1, end, true)) {
+        return null;
+      }
+      parsed.prerelease = version.substring(pos[0] + 1, end);
+    }
+    return parsed;
+  }
+
+  /**
+   * Reads a number without leading zeros at the position, advancing it.
+   */
+  @Nullable
+  private static String number(final String version, final int[] pos) {
+    int start = pos[0];
+    int i = start;
+    while (i < version.length() && isDigit(version.charAt(i))) {
+      i++;
+    }
+    if (i == start || (version.charAt(start) == '0' && i - start > 1)) {
+      return null;
+    }
+    pos[0] = i;
+    return version.substring(start, i);
+  }
+
+  /**
+   * Checks a dot separated list of non empty alphanumeric identifiers; numeric prerelease identifiers must not have
+   * leading zeros.
+   */
+  private static boolean identifiers(final String version, final int start, final int end, final boolean prerelease) {
+    if (start >= end) {
+      return false;
+    }
+    int identifierStart = start;
+    for (int i = start; i <= end; i++) {
+      if (i == end || version.charAt(i) == '.') {
+        if (i == identifierStart) {
+          return false;
+        }
+        if (prerelease && isNumeric(version, identifierStart, i) && version.charAt(identifierStart) == '0'
+            && i - identifierStart > 1) {
+          return false;
+        }
+        identifierStart = i + 1;
+      }
+      else {
+        char c = version.charAt(i);
+        if (!isDigit(c) && !(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z') && c != '-') {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static int compareNumber(final String a, final String b) {
+    if (a.length() != b.length()) {
+      return a.length() < b.length() ? -1 : 1;
+    }
+    return Integer.signum(a.compareTo(b));
+  }
+
+  private static int comparePrerelease(final String a, final String b) {
+    if (a.equals(b)) {
+      return 0;
+    }
+    if (a.isEmpty()) {
+      return 1;
+    }
+    if (b.isEmpty()) {
+      return -1;
+    }
+    String[] as = a.split("\\.");
+    String[] bs = b.split("\\.");
+    for (int i = 0; i < as.length && i < bs.length; i++) {
+      if (as[i].equals(bs[i])) {
+        continue;
+      }
+      boolean an = isNumeric(as[i], 0, as[i].length());
+      boolean bn = isNumeric(bs[i], 0, bs[i].length());
+      if (an != bn) {
+        return an ? -1 : 1;
+      }
+      return an ? compareNumber(as[i], bs[i]) : Integer.signum(as[i].compareTo(bs[i]));
+    }
+    return Integer.compare(as.length, bs.length);
+  }
+
+  private static boolean isNumeric(final String value, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      if (!isDigit(value.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+}
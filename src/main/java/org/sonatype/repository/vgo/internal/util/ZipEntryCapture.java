@@ -0,0 +1,168 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.repository.vgo.internal.util.ZipScanningInputStream.EntryHandler;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * {@link EntryHandler} capturing the content of a single zip entry.
+ *
+ * The content is spooled to a temporary file through a fixed size buffer as it streams by, so the heap used does not
+ * depend on the size of the entry. Entries exceeding the maximum size are dropped as soon as the limit is crossed.
+ * The temporary file is deleted on {@link #close()}.
+ *
+ * @since 0.0.3
+ */
+public class ZipEntryCapture
+    implements EntryHandler, Closeable
+{
+  private static final int BUFFER_SIZE = 8192;
+
+  private final String entryName;
+
+  private final long maxSize;
+
+  private Path spool;
+
+  private OutputStream content;
+
+  private Hasher hasher;
+
+  private long size;
+
+  private HashCode sha256;
+
+  private boolean capturing;
+
+  private boolean captured;
+
+  /**
+   * @param entryName exact name of the entry to capture
+   * @param maxSize   entries larger than this are not captured
+   */
+  public ZipEntryCapture(final String entryName, final long maxSize) {
+    checkArgument(maxSize > 0);
+    this.entryName = checkNotNull(entryName);
+    this.maxSize = maxSize;
+  }
+
+  @Override
+  public boolean startEntry(final String name) throws IOException {
+    capturing = !captured && entryName.equals(name);
+    if (capturing) {
+      discard();
+      spool = Files.createTempFile("vgo-entry-", ".tmp");
+      content = new BufferedOutputStream(Files.newOutputStream(spool), BUFFER_SIZE);
+      hasher = Hashing.sha256().newHasher();
+      size = 0;
+    }
+    return capturing;
+  }
+
+  @Override
+  public void content(final byte[] bytes, final int offset, final int length) throws IOException {
+    if (!capturing) {
+      return;
+    }
+    if (size + length > maxSize) {
+      capturing = false;
+      discard();
+      return;
+    }
+    content.write(bytes, offset, length);
+    hasher.putBytes(bytes, offset, length);
+    size += length;
+  }
+
+  @Override
+  public void endEntry() throws IOException {
+    if (capturing) {
+      content.close();
+      content = null;
+      sha256 = hasher.hash();
+      captured = true;
+      capturing = false;
+    }
+  }
+
+  /**
+   * Returns {@code true} if the entry was found and did not exceed the maximum size.
+   */
+  public boolean isCaptured() {
+    return captured;
+  }
+
+  /**
+   * Opens the captured content, {@code null} if the entry was not found or exceeded the maximum size.
+   */
+  @Nullable
+  public InputStream openStream() throws IOException {
+    return captured ? Files.newInputStream(spool) : null;
+  }
+
+  /**
+   * Returns the size of the captured content.
+   */
+  public long getSize() {
+    checkState(captured, "Entry not captured");
+    return size;
+  }
+
+  /**
+   * Returns the SHA-256 of the captured content.
+   */
+  public HashCode getSha256() {
+    checkState(captured, "Entry not captured");
+    return sha256;
+  }
+
+  @Override
+  public void close() throws IOException {
+    captured = false;
+    capturing = false;
+    discard();
+  }
+
+  private void discard() throws IOException {
+    try {
+      if (content != null) {
+        content.close();
+      }
+    }
+    finally {
+      content = null;
+      if (spool != null) {
+        Files.deleteIfExists(spool);
+        spool = null;
+      }
+    }
+  }
+}
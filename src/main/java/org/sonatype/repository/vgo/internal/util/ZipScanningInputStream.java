@@ -0,0 +1,425 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link InputStream} which parses the zip passing through it, so the entries of the zip can be inspected while it
+ * is being read by someone else, e.g. while it is stored, without reading it a second time.
+ *
+ * Only the local file headers are followed, scanning stops at the central directory. When the zip uses a layout that
+ * cannot be followed while streaming (an unsupported compression method or a stored entry with a data descriptor)
+ * scanning is abandoned. The bytes are passed through untouched in any case.
+ *
+ * @since 0.0.3
+ */
+public class ZipScanningInputStream
+    extends FilterInputStream
+{
+  /**
+   * Receives the entries found while scanning.
+   */
+  public interface EntryHandler
+  {
+    /**
+     * Called when an entry starts.
+     *
+     * @return {@code true} to receive the uncompressed content of the entry
+     */
+    boolean startEntry(String name) throws IOException;
+
+    /**
+     * Called with uncompressed content of an entry, if requested by {@link #startEntry(String)}.
+     */
+    void content(byte[] bytes, int offset, int length) throws IOException;
+
+    /**
+     * Called when all the content of an entry was passed.
+     */
+    void endEntry() throws IOException;
+
+    /**
+     * Called after {@link #endEntry()} with where the content of the entry was found in the zip.
+     *
+     * @param dataOffset     offset of the content of the entry, from the start of the stream
+     * @param compressedSize number of bytes the content of the entry takes in the zip
+     */
+    default void entryLocation(long dataOffset, long compressedSize) throws IOException {
+      // not needed by most handlers
+    }
+  }
+
+  private enum State
+  {
+    SIGNATURE, HEADER, NAME, EXTRA, DATA, DESCRIPTOR, DONE, ABANDONED
+  }
+
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+
+  private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+
+  private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+
+  private static final int SIGNATURE_LENGTH = 4;
+
+  private static final int LOCAL_HEADER_LENGTH = 30;
+
+  private static final int FLAG_DATA_DESCRIPTOR = 0x08;
+
+  private static final int STORED = 0;
+
+  private static final int DEFLATED = 8;
+
+  private static final int ZIP64_EXTRA_ID = 0x0001;
+
+  private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+  private final EntryHandler[] handlers;
+
+  private final boolean[] wanted;
+
+  private final Inflater inflater = new Inflater(true);
+
+  private final byte[] inflated = new byte[8192];
+
+  private final byte[] single = new byte[1];
+
+  private byte[] field = new byte[LOCAL_HEADER_LENGTH];
+
+  private int fieldLength;
+
+  private int fieldPosition;
+
+  private State state;
+
+  private int flags;
+
+  private int method;
+
+  private long compressedSize;
+
+  private long uncompressedSize;
+
+  private int nameLength;
+
+  private String name;
+
+  private int extraLength;
+
+  private boolean zip64;
+
+  private boolean inflating;
+
+  private long remaining;
+
+  private long position;
+
+  private long dataOffset;
+
+  public ZipScanningInputStream(final InputStream in, final EntryHandler... handlers) {
+    super(checkNotNull(in));
+    this.handlers = checkNotNull(handlers);
+    this.wanted = new boolean[handlers.length];
+    begin(State.SIGNATURE, SIGNATURE_LENGTH);
+  }
+
+  /**
+   * Returns {@code true} once every entry of the zip was scanned, up to the central directory.
+   */
+  public boolean isScanned() {
+    return state == State.DONE;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int read = super.read();
+    if (read >= 0) {
+      single[0] = (byte) read;
+      scan(single, 0, 1);
+    }
+    return read;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    int read = super.read(b, off, len);
+    if (read > 0) {
+      scan(b, off, read);
+    }
+    return read;
+  }
+
+  @Override
+  public long skip(final long n) throws IOException {
+    byte[] buffer = new byte[(int) Math.min(n, inflated.length)];
+    long skipped = 0;
+    while (skipped < n) {
+      int read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+      if (read < 0) {
+        break;
+      }
+      skipped += read;
+    }
+    return skipped;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      super.close();
+    }
+    finally {
+      inflater.end();
+    }
+  }
+
+  private void scan(final byte[] bytes, final int offset, final int length) throws IOException {
+    int position = offset;
+    int left = length;
+    while (left > 0 && state != State.DONE && state != State.ABANDONED) {
+      int consumed = state == State.DATA ? data(bytes, position, left) : fill(bytes, position, left);
+      position += consumed;
+      left -= consumed;
+    }
+  }
+
+  private void begin(final State next, final int length) {
+    state = next;
+    fieldLength = length;
+    fieldPosition = 0;
+    if (field.length < length) {
+      field = new byte[length];
+    }
+  }
+
+  private int fill(final byte[] bytes, final int offset, final int length) throws IOException {
+    int count = Math.min(length, fieldLength - fieldPosition);
+    System.arraycopy(bytes, offset, field, fieldPosition, count);
+    fieldPosition += count;
+    position += count;
+    if (fieldPosition == fieldLength) {
+      complete();
+    }
+    return count;
+  }
+
+  private void complete() throws IOException {
+    switch (state) {
+      case SIGNATURE:
+        onSignature();
+        break;
+      case HEADER:
+        onHeader();
+        break;
+      case NAME:
+        onName();
+        break;
+      case EXTRA:
+        onExtra();
+        break;
+      case DESCRIPTOR:
+        onDescriptor();
+        break;
+      default:
+        throw new IllegalStateException("Unexpected state " + state);
+    }
+  }
+
+  private void onSignature() {
+    int signature = (int) uint32(0);
+    if (signature == LOCAL_HEADER_SIGNATURE) {
+      // keep the signature, the header offsets below are relative to it
+      state = State.HEADER;
+      fieldLength = LOCAL_HEADER_LENGTH;
+    }
+    else if (signature == CENTRAL_HEADER_SIGNATURE || signature == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+      state = State.DONE;
+    }
+    else {
+      state = State.ABANDONED;
+    }
+  }
+
+  private void onHeader() throws IOException {
+    flags = uint16(6);
+    method = uint16(8);
+    compressedSize = uint32(18);
+    uncompressedSize = uint32(22);
+    nameLength = uint16(26);
+    extraLength = uint16(28);
+    begin(State.NAME, nameLength);
+    if (nameLength == 0) {
+      complete();
+    }
+  }
+
+  private void onName() throws IOException {
+    name = new String(field, 0, nameLength, UTF_8);
+    begin(State.EXTRA, extraLength);
+    if (extraLength == 0) {
+      complete();
+    }
+  }
+
+  private void onExtra() throws IOException {
+    zip64 = false;
+    int position = 0;
+    while (position + 4 <= extraLength) {
+      int id = uint16(position);
+      int size = uint16(position + 2);
+      if (id == ZIP64_EXTRA_ID) {
+        zip64 = true;
+        int value = position + 4;
+        if (uncompressedSize == ZIP64_MAGIC && value + 8 <= position + 4 + size) {
+          value += 8;
+        }
+        if (compressedSize == ZIP64_MAGIC && value + 8 <= position + 4 + size) {
+          compressedSize = uint64(value);
+        }
+      }
+      position += 4 + size;
+    }
+    startEntry();
+  }
+
+  private void startEntry() throws IOException {
+    boolean descriptor = (flags & FLAG_DATA_DESCRIPTOR) != 0;
+    if ((method != STORED && method != DEFLATED) || (method == STORED && descriptor)) {
+      state = State.ABANDONED;
+      return;
+    }
+    boolean anyWanted = false;
+    for (int i = 0; i < handlers.length; i++) {
+      wanted[i] = handlers[i].startEntry(name);
+      anyWanted |= wanted[i];
+    }
+    inflating = method == DEFLATED && (anyWanted || descriptor);
+    remaining = descriptor ? -1 : compressedSize;
+    dataOffset = position;
+    inflater.reset();
+    state = State.DATA;
+    if (remaining == 0) {
+      endEntry();
+    }
+  }
+
+  private int data(final byte[] bytes, final int offset, final int length) throws IOException {
+    int available = remaining < 0 ? length : (int) Math.min(length, remaining);
+    if (!inflating) {
+      content(bytes, offset, available);
+      remaining -= available;
+      position += available;
+      if (remaining == 0) {
+        endEntry();
+      }
+      return available;
+    }
+
+    inflater.setInput(bytes, offset, available);
+    try {
+      while (!inflater.finished() && !inflater.needsInput()) {
+        int count = inflater.inflate(inflated);
+        if (count == 0) {
+          if (inflater.needsDictionary()) {
+            state = State.ABANDONED;
+            return available;
+          }
+          break;
+        }
+        content(inflated, 0, count);
+      }
+    }
+    catch (DataFormatException e) {
+      state = State.ABANDONED;
+      return available;
+    }
+
+    int consumed = available - inflater.getRemaining();
+    if (remaining > 0) {
+      remaining -= consumed;
+    }
+    position += consumed;
+    if (inflater.finished()) {
+      endEntry();
+    }
+    else if (remaining == 0) {
+      // compressed data exhausted before the end of the deflate stream
+      state = State.ABANDONED;
+    }
+    return consumed;
+  }
+
+  private void content(final byte[] bytes, final int offset, final int length) throws IOException {
+    for (int i = 0; i < handlers.length; i++) {
+      if (wanted[i]) {
+        handlers[i].content(bytes, offset, length);
+      }
+    }
+  }
+
+  private void endEntry() throws IOException {
+    for (EntryHandler handler : handlers) {
+      handler.endEntry();
+      handler.entryLocation(dataOffset, position - dataOffset);
+    }
+    if ((flags & FLAG_DATA_DESCRIPTOR) != 0) {
+      begin(State.DESCRIPTOR, SIGNATURE_LENGTH);
+    }
+    else {
+      begin(State.SIGNATURE, SIGNATURE_LENGTH);
+    }
+  }
+
+  private void onDescriptor() {
+    if (fieldLength == SIGNATURE_LENGTH) {
+      // the signature of a data descriptor is optional, without it the first four bytes are the crc
+      int sizes = zip64 ? 16 : 8;
+      fieldLength = (uint32(0) == DATA_DESCRIPTOR_SIGNATURE ? SIGNATURE_LENGTH : 0) + 4 + sizes;
+      if (field.length < fieldLength) {
+        byte[] grown = new byte[fieldLength];
+        System.arraycopy(field, 0, grown, 0, fieldPosition);
+        field = grown;
+      }
+    }
+    else {
+      begin(State.SIGNATURE, SIGNATURE_LENGTH);
+    }
+  }
+
+  private int uint16(final int offset) {
+    return (field[offset] & 0xff) | (field[offset + 1] & 0xff) << 8;
+  }
+
+  private long uint32(final int offset) {
+    return (uint16(offset) | (long) uint16(offset + 2) << 16) & 0xFFFFFFFFL;
+  }
+
+  private long uint64(final int offset) {
+    return uint32(offset) | uint32(offset + 4) << 32;
+  }
+}
@@ -26,6 +26,20 @@ Ext.define('NX.vgo.app.PluginStrings', {
 
   keys: {
     Repository_Facet_VgoFacet_Title: 'Vgo Settings',
+    Repository_Facet_VgoFacet_DeriveMetadata_FieldLabel: 'Derive metadata',
+    Repository_Facet_VgoFacet_DeriveMetadata_HelpText: 'Store the go.mod contained in fetched zips and prefetch their info, saving remote requests',
+    Repository_Facet_VgoFacet_PrefetchDepth_FieldLabel: 'Prefetch depth',
+    Repository_Facet_VgoFacet_PrefetchDepth_HelpText: 'Levels of requirements of stored go.mod files to prefetch in the background, 0 disables prefetching',
+    Repository_Facet_VgoFacet_PrefetchConcurrency_FieldLabel: 'Prefetch concurrency',
+    Repository_Facet_VgoFacet_PrefetchConcurrency_HelpText: 'Maximum number of concurrent prefetches',
+    Repository_Facet_VgoFacet_PrefetchRate_FieldLabel: 'Prefetch rate',
+    Repository_Facet_VgoFacet_PrefetchRate_HelpText: 'Maximum number of prefetches started per second',
+    Repository_Facet_VgoFacet_StaleWhileRevalidate_FieldLabel: 'Stale while revalidate',
+    Repository_Facet_VgoFacet_StaleWhileRevalidate_HelpText: 'Serve expired version lists and infos right away and refresh them in the background',
+    Repository_Facet_VgoFacet_FetchThrough_FieldLabel: 'Fetch through',
+    Repository_Facet_VgoFacet_FetchThrough_HelpText: 'Send zips fetched from the remote to the client while storing them, rather than after',
+    Repository_Facet_VgoHostedFacet_AsyncDerivation_FieldLabel: 'Derive metadata in the background',
+    Repository_Facet_VgoHostedFacet_AsyncDerivation_HelpText: 'Acknowledge uploads once the zip is stored, deriving go.mod, info and hashes in the background',
     SearchVgo_Group: 'Vgo Repositories',
     SearchVgo_License_FieldLabel: 'License',
     SearchVgo_Text: 'Vgo',
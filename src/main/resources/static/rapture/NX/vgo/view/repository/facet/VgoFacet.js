@@ -0,0 +1,97 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+/*global Ext, NX*/
+
+/**
+ * Configuration specific to vgo proxy repositories.
+ *
+ * @since 0.0.3
+ */
+Ext.define('NX.vgo.view.repository.facet.VgoFacet', {
+  extend: 'Ext.form.FieldContainer',
+  alias: 'widget.nx-vgo-repository-vgo-facet',
+  requires: [
+    'NX.I18n'
+  ],
+
+  /**
+   * @override
+   */
+  initComponent: function() {
+    var me = this;
+
+    me.items = [
+      {
+        xtype: 'fieldset',
+        cls: 'nx-form-section',
+        title: NX.I18n.get('Repository_Facet_VgoFacet_Title'),
+
+        items: [
+          {
+            xtype: 'checkbox',
+            name: 'attributes.vgo.deriveMetadata',
+            fieldLabel: NX.I18n.get('Repository_Facet_VgoFacet_DeriveMetadata_FieldLabel'),
+            helpText: NX.I18n.get('Repository_Facet_VgoFacet_DeriveMetadata_HelpText'),
+            value: false
+          },
+          {
+            xtype: 'numberfield',
+            name: 'attributes.vgo.prefetchDepth',
+            fieldLabel: NX.I18n.get('Repository_Facet_VgoFacet_PrefetchDepth_FieldLabel'),
+            helpText: NX.I18n.get('Repository_Facet_VgoFacet_PrefetchDepth_HelpText'),
+            allowDecimals: false,
+            allowExponential: false,
+            minValue: 0,
+            value: 0
+          },
+          {
+            xtype: 'numberfield',
+            name: 'attributes.vgo.prefetchConcurrency',
+            fieldLabel: NX.I18n.get('Repository_Facet_VgoFacet_PrefetchConcurrency_FieldLabel'),
+            helpText: NX.I18n.get('Repository_Facet_VgoFacet_PrefetchConcurrency_HelpText'),
+            allowDecimals: false,
+            allowExponential: false,
+            minValue: 1,
+            value: 4
+          },
+          {
+            xtype: 'numberfield',
+            name: 'attributes.vgo.prefetchRate',
+            fieldLabel: NX.I18n.get('Repository_Facet_VgoFacet_PrefetchRate_FieldLabel'),
+            helpText: NX.I18n.get('Repository_Facet_VgoFacet_PrefetchRate_HelpText'),
+            allowDecimals: false,
+            allowExponential: false,
+            minValue: 1,
+            value: 10
+          },
+          {
+            xtype: 'checkbox',
+            name: 'attributes.vgo.staleWhileRevalidate',
+            fieldLabel: NX.I18n.get('Repository_Facet_VgoFacet_StaleWhileRevalidate_FieldLabel'),
+            helpText: NX.I18n.get('Repository_Facet_VgoFacet_StaleWhileRevalidate_HelpText'),
+            value: false
+          },
+          {
+            xtype: 'checkbox',
+            name: 'attributes.vgo.fetchThrough',
+            fieldLabel: NX.I18n.get('Repository_Facet_VgoFacet_FetchThrough_FieldLabel'),
+            helpText: NX.I18n.get('Repository_Facet_VgoFacet_FetchThrough_HelpText'),
+            value: false
+          }
+        ]
+      }
+    ];
+
+    me.callParent();
+  }
+});
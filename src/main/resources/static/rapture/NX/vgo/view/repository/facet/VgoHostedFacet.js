@@ -0,0 +1,53 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+/*global Ext, NX*/
+
+/**
+ * Configuration specific to vgo hosted repositories.
+ *
+ * @since 0.0.3
+ */
+Ext.define('NX.vgo.view.repository.facet.VgoHostedFacet', {
+  extend: 'Ext.form.FieldContainer',
+  alias: 'widget.nx-vgo-repository-vgo-hosted-facet',
+  requires: [
+    'NX.I18n'
+  ],
+
+  /**
+   * @override
+   */
+  initComponent: function() {
+    var me = this;
+
+    me.items = [
+      {
+        xtype: 'fieldset',
+        cls: 'nx-form-section',
+        title: NX.I18n.get('Repository_Facet_VgoFacet_Title'),
+
+        items: [
+          {
+            xtype: 'checkbox',
+            name: 'attributes.vgo.asyncDerivation',
+            fieldLabel: NX.I18n.get('Repository_Facet_VgoHostedFacet_AsyncDerivation_FieldLabel'),
+            helpText: NX.I18n.get('Repository_Facet_VgoHostedFacet_AsyncDerivation_HelpText'),
+            value: false
+          }
+        ]
+      }
+    ];
+
+    me.callParent();
+  }
+});
@@ -20,7 +20,8 @@ Ext.define('NX.vgo.view.repository.recipe.VgoHosted', {
   alias: 'widget.nx-coreui-repository-vgo-hosted',
   requires: [
     'NX.coreui.view.repository.facet.StorageFacet',
-    'NX.coreui.view.repository.facet.StorageFacetHosted'
+    'NX.coreui.view.repository.facet.StorageFacetHosted',
+    'NX.vgo.view.repository.facet.VgoHostedFacet'
   ],
 
   /**
@@ -31,7 +32,8 @@ Ext.define('NX.vgo.view.repository.recipe.VgoHosted', {
 
     me.items = [
       {xtype: 'nx-coreui-repository-storage-facet'},
-      {xtype: 'nx-coreui-repository-storage-hosted-facet', writePolicy: 'ALLOW'}
+      {xtype: 'nx-coreui-repository-storage-hosted-facet', writePolicy: 'ALLOW'},
+      {xtype: 'nx-vgo-repository-vgo-hosted-facet'}
     ];
 
     me.callParent();
@@ -22,7 +22,8 @@ Ext.define('NX.vgo.view.repository.recipe.VgoProxy', {
         'NX.coreui.view.repository.facet.ProxyFacet',
         'NX.coreui.view.repository.facet.StorageFacet',
         'NX.coreui.view.repository.facet.HttpClientFacet',
-        'NX.coreui.view.repository.facet.NegativeCacheFacet'
+        'NX.coreui.view.repository.facet.NegativeCacheFacet',
+        'NX.vgo.view.repository.facet.VgoFacet'
     ],
 
     /**
@@ -33,6 +34,7 @@ Ext.define('NX.vgo.view.repository.recipe.VgoProxy', {
 
         me.items = [
         {xtype: 'nx-coreui-repository-proxy-facet'},
+        {xtype: 'nx-vgo-repository-vgo-facet'},
         {xtype: 'nx-coreui-repository-storage-facet'},
         {xtype: 'nx-coreui-repository-negativecache-facet'},
         {xtype: 'nx-coreui-repository-httpclient-facet'}
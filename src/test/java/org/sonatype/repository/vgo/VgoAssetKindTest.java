@@ -43,5 +43,15 @@ public class VgoAssetKindTest
     assertThat(VGO_PACKAGE.getCacheType(), is(equalTo(CacheControllerHolder.CONTENT)));
     assertThat(VGO_MODULE.getCacheType(), is(equalTo(CacheControllerHolder.METADATA)));
     assertThat(VGO_INFO.getCacheType(), is(equalTo(CacheControllerHolder.METADATA)));
+    assertThat(VgoAssetKind.VGO_LATEST.getCacheType(), is(equalTo(CacheControllerHolder.METADATA)));
+    assertThat(VgoAssetKind.VGO_SUMDB.getCacheType(), is(equalTo(CacheControllerHolder.METADATA)));
+    assertThat(VgoAssetKind.VGO_SUMDB_TILE.getCacheType(), is(equalTo(CacheControllerHolder.CONTENT)));
+  }
+
+  @Test
+  public void isImmutable() {
+    assertThat(VGO_PACKAGE.isImmutable(), is(false));
+    assertThat(VgoAssetKind.VGO_SUMDB.isImmutable(), is(false));
+    assertThat(VgoAssetKind.VGO_SUMDB_TILE.isImmutable(), is(true));
   }
 }
\ No newline at end of file
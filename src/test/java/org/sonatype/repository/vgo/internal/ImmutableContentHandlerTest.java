@@ -0,0 +1,105 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.common.collect.AttributesMap;
+import org.sonatype.nexus.repository.http.HttpResponses;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.repository.vgo.VgoAssetKind;
+import org.sonatype.repository.vgo.internal.metadata.VgoCoordinates;
+import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static com.google.common.net.HttpHeaders.CACHE_CONTROL;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+
+public class ImmutableContentHandlerTest
+    extends TestSupport
+{
+  @Mock
+  private Context context;
+
+  private AttributesMap attributes;
+
+  private ImmutableContentHandler underTest;
+
+  @Before
+  public void setUp() throws Exception {
+    attributes = new AttributesMap();
+    when(context.getAttributes()).thenReturn(attributes);
+
+    underTest = new ImmutableContentHandler(new VgoPathUtils());
+  }
+
+  @Test
+  public void immutableContent() throws Exception {
+    attributes.set(VgoAssetKind.class, VgoAssetKind.VGO_SUMDB_TILE);
+    when(context.proceed()).thenReturn(HttpResponses.ok());
+
+    Response response = underTest.handle(context);
+
+    assertThat(response.getHeaders().get(CACHE_CONTROL), is(equalTo(ImmutableContentHandler.IMMUTABLE)));
+  }
+
+  @Test
+  public void mutableContent() throws Exception {
+    attributes.set(VgoAssetKind.class, VgoAssetKind.VGO_SUMDB);
+    when(context.proceed()).thenReturn(HttpResponses.ok());
+
+    Response response = underTest.handle(context);
+
+    assertThat(response.getHeaders().get(CACHE_CONTROL), is(nullValue()));
+  }
+
+  @Test
+  public void taggedVersion() throws Exception {
+    attributes.set(VgoAssetKind.class, VgoAssetKind.VGO_PACKAGE);
+    attributes.set(VgoCoordinates.class, VgoCoordinates.of("github.com/sonatype/example", "v1.2.3"));
+    when(context.proceed()).thenReturn(HttpResponses.ok());
+
+    Response response = underTest.handle(context);
+
+    assertThat(response.getHeaders().get(CACHE_CONTROL), is(equalTo(ImmutableContentHandler.IMMUTABLE)));
+  }
+
+  @Test
+  public void pseudoVersion() throws Exception {
+    attributes.set(VgoAssetKind.class, VgoAssetKind.VGO_MODULE);
+    attributes.set(VgoCoordinates.class,
+        VgoCoordinates.of("github.com/sonatype/example", "v0.0.0-20180807140117-3d7d8ee2cba0"));
+    when(context.proceed()).thenReturn(HttpResponses.ok());
+
+    Response response = underTest.handle(context);
+
+    assertThat(response.getHeaders().get(CACHE_CONTROL), is(nullValue()));
+  }
+
+  @Test
+  public void unsuccessfulResponse() throws Exception {
+    attributes.set(VgoAssetKind.class, VgoAssetKind.VGO_SUMDB_TILE);
+    when(context.proceed()).thenReturn(HttpResponses.notFound());
+
+    Response response = underTest.handle(context);
+
+    assertThat(response.getHeaders().get(CACHE_CONTROL), is(nullValue()));
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.cache;
+
+import java.util.HashMap;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.blobstore.api.Blob;
+import org.sonatype.nexus.blobstore.api.BlobRef;
+import org.sonatype.nexus.common.collect.NestedAttributesMap;
+import org.sonatype.nexus.common.entity.EntityId;
+import org.sonatype.nexus.common.entity.EntityMetadata;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.Bucket;
+import org.sonatype.nexus.repository.storage.StorageTx;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet;
+import org.sonatype.repository.vgo.internal.util.VgoDataAccess;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet.Phase.DB_LOOKUP;
+
+public class VgoAssetCacheFacetTest
+    extends TestSupport
+{
+  private static final String PATH = "github.com/sonatype/example/@v/v1.0.0.zip";
+
+  @Mock
+  private VgoDataAccess vgoDataAccess;
+
+  @Mock
+  private Repository repository;
+
+  @Mock
+  private VgoMetricsFacet metrics;
+
+  @Mock
+  private StorageTx tx;
+
+  @Mock
+  private Bucket bucket;
+
+  @Mock
+  private EntityId assetId;
+
+  private Asset asset;
+
+  private VgoAssetCacheFacet underTest;
+
+  @Before
+  public void setUp() throws Exception {
+    when(repository.facet(VgoMetricsFacet.class)).thenReturn(metrics);
+    when(tx.findBucket(repository)).thenReturn(bucket);
+    asset = asset(assetId);
+    when(vgoDataAccess.findAsset(tx, bucket, PATH)).thenReturn(asset);
+
+    underTest = new VgoAssetCacheFacet(vgoDataAccess, 1024 * 1024);
+    underTest.attach(repository);
+  }
+
+  @Test
+  public void lookupsAreCached() {
+    assertThat(underTest.findAsset(tx, PATH), is(sameInstance(asset)));
+    assertThat(underTest.findAsset(tx, PATH), is(sameInstance(asset)));
+
+    verify(vgoDataAccess, times(1)).findAsset(tx, bucket, PATH);
+    verify(tx, times(1)).findBucket(repository);
+    verify(metrics, times(1)).update(eq(DB_LOOKUP), anyLong());
+    assertThat(underTest.stats().hitCount(), is(1L));
+    assertThat(underTest.stats().missCount(), is(1L));
+  }
+
+  @Test
+  public void missingAssetsAreNotCached() {
+    assertThat(underTest.findAsset(tx, "missing"), is(nullValue()));
+    assertThat(underTest.findAsset(tx, "missing"), is(nullValue()));
+
+    verify(vgoDataAccess, times(2)).findAsset(tx, bucket, "missing");
+  }
+
+  @Test
+  public void invalidatedLookupsAreRepeated() {
+    underTest.findAsset(tx, PATH);
+    underTest.invalidate(PATH);
+    underTest.findAsset(tx, PATH);
+
+    verify(vgoDataAccess, times(2)).findAsset(tx, bucket, PATH);
+  }
+
+  @Test
+  public void lookupsRacingAnInvalidationAreNotCached() {
+    // the asset is saved and dropped from the cache while it is looked up as it was before
+    when(vgoDataAccess.findAsset(tx, bucket, PATH)).thenAnswer(invocation -> {
+      underTest.invalidate(PATH);
+      return asset;
+    }).thenReturn(asset);
+
+    underTest.findAsset(tx, PATH);
+    underTest.findAsset(tx, PATH);
+    underTest.findAsset(tx, PATH);
+
+    verify(vgoDataAccess, times(2)).findAsset(tx, bucket, PATH);
+  }
+
+  @Test
+  public void contentCarriesAnAssetOfItsOwn() {
+    BlobRef blobRef = mock(BlobRef.class);
+    Blob blob = mock(Blob.class);
+    Asset read = mock(Asset.class);
+    Content content = mock(Content.class);
+    when(asset.blobRef()).thenReturn(blobRef);
+    when(read.blobRef()).thenReturn(blobRef);
+    when(read.requireBlobRef()).thenReturn(blobRef);
+    when(tx.findAsset(assetId, bucket)).thenReturn(read);
+    when(tx.requireBlob(blobRef)).thenReturn(blob);
+    when(vgoDataAccess.toContent(read, blob)).thenReturn(content);
+
+    assertThat(underTest.getContent(tx, PATH), is(sameInstance(content)));
+    assertThat(underTest.findAsset(tx, PATH), is(sameInstance(asset)));
+
+    verify(vgoDataAccess, never()).toContent(eq(asset), any(Blob.class));
+    verify(vgoDataAccess, times(1)).findAsset(tx, bucket, PATH);
+  }
+
+  @Test
+  public void deletedAssetsAreLookedUpAgain() {
+    EntityId currentId = mock(EntityId.class);
+    BlobRef currentRef = mock(BlobRef.class);
+    Blob blob = mock(Blob.class);
+    Asset current = asset(currentId);
+    Asset read = mock(Asset.class);
+    Content content = mock(Content.class);
+    when(current.blobRef()).thenReturn(currentRef);
+    when(read.blobRef()).thenReturn(currentRef);
+    when(read.requireBlobRef()).thenReturn(currentRef);
+    when(tx.findAsset(currentId, bucket)).thenReturn(read);
+    when(tx.requireBlob(currentRef)).thenReturn(blob);
+    when(vgoDataAccess.toContent(read, blob)).thenReturn(content);
+
+    underTest.findAsset(tx, PATH);
+    when(vgoDataAccess.findAsset(tx, bucket, PATH)).thenReturn(current);
+
+    assertThat(underTest.getContent(tx, PATH), is(sameInstance(content)));
+    assertThat(underTest.findAsset(tx, PATH), is(sameInstance(current)));
+  }
+
+  @Test
+  public void changedAssetsAreDropped() {
+    BlobRef staleRef = mock(BlobRef.class);
+    BlobRef currentRef = mock(BlobRef.class);
+    Asset read = mock(Asset.class);
+    when(asset.blobRef()).thenReturn(staleRef);
+    when(read.blobRef()).thenReturn(currentRef);
+    when(read.requireBlobRef()).thenReturn(currentRef);
+    when(tx.findAsset(assetId, bucket)).thenReturn(read);
+    when(tx.requireBlob(currentRef)).thenReturn(mock(Blob.class));
+
+    underTest.getContent(tx, PATH);
+    underTest.findAsset(tx, PATH);
+
+    verify(vgoDataAccess, times(2)).findAsset(tx, bucket, PATH);
+  }
+
+  @Test
+  public void gaugesOfRepositoriesSharingThePrefixAreKept() throws Exception {
+    MetricRegistry registry = SharedMetricRegistries.getOrCreate("nexus");
+    Repository other = mock(Repository.class);
+    when(repository.getName()).thenReturn("go");
+    when(other.getName()).thenReturn("go.other");
+    VgoAssetCacheFacet otherFacet = new VgoAssetCacheFacet(vgoDataAccess, 1024 * 1024);
+    otherFacet.attach(other);
+    otherFacet.doStart();
+    try {
+      underTest.doStart();
+      underTest.doStop();
+
+      assertThat(registry.getGauges(), not(hasKey(MetricRegistry.name(VgoAssetCacheFacet.class, "go", "hits"))));
+      assertThat(registry.getGauges(), hasKey(MetricRegistry.name(VgoAssetCacheFacet.class, "go.other", "hits")));
+    }
+    finally {
+      otherFacet.doStop();
+    }
+  }
+
+  private static Asset asset(final EntityId id) {
+    EntityMetadata metadata = mock(EntityMetadata.class);
+    when(metadata.getId()).thenReturn(id);
+    Asset asset = mock(Asset.class);
+    when(asset.getEntityMetadata()).thenReturn(metadata);
+    when(asset.attributes()).thenReturn(new NestedAttributesMap("attributes", new HashMap<>()));
+    return asset;
+  }
+}
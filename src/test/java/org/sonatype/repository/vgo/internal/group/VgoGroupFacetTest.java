@@ -0,0 +1,135 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.group;
+
+import java.io.IOException;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.Response;
+import org.sonatype.nexus.repository.view.Status;
+import org.sonatype.nexus.repository.view.ViewFacet;
+import org.sonatype.nexus.repository.view.payloads.BytesPayload;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.repository.http.HttpStatus.BAD_GATEWAY;
+import static org.sonatype.nexus.repository.http.HttpStatus.NOT_FOUND;
+import static org.sonatype.nexus.repository.http.HttpStatus.OK;
+import static org.sonatype.nexus.repository.view.ContentTypes.TEXT_PLAIN;
+
+public class VgoGroupFacetTest
+    extends TestSupport
+{
+  @Mock
+  private Context context;
+
+  @Mock
+  private Request request;
+
+  @Mock
+  private Repository member;
+
+  @Mock
+  private ViewFacet viewFacet;
+
+  @Before
+  public void setUp() {
+    when(context.getRequest()).thenReturn(request);
+    when(member.getName()).thenReturn("member");
+    when(member.facet(ViewFacet.class)).thenReturn(viewFacet);
+  }
+
+  @Test
+  public void mergeLists() {
+    byte[] merged = VgoGroupFacet.mergeLists(asList(
+        bytes("v1.10.0\nv1.2.0\n"),
+        bytes("v1.2.0\nv1.3.0-rc.1\nv0.9.0")));
+
+    assertThat(new String(merged, UTF_8), is(equalTo("v0.9.0\nv1.2.0\nv1.3.0-rc.1\nv1.10.0")));
+  }
+
+  @Test
+  public void mergeListsDropsEncodedVersions() {
+    byte[] merged = VgoGroupFacet.mergeLists(asList(bytes("v1.0.0-RC1\nv1.0.0-!r!c2"), bytes("v0.9.0")));
+
+    assertThat(new String(merged, UTF_8), is(equalTo("v0.9.0\nv1.0.0-RC1")));
+  }
+
+  @Test
+  public void mergeEmptyLists() {
+    assertThat(VgoGroupFacet.mergeLists(asList(bytes(""), bytes("\n"))), is(nullValue()));
+    assertThat(VgoGroupFacet.mergeLists(emptyList()), is(nullValue()));
+  }
+
+  @Test
+  public void mergeLatest() {
+    byte[] hosted = bytes("{\"Version\":\"v1.2.0\",\"Time\":\"2019-01-01T00:00:00Z\"}");
+    byte[] proxied = bytes("{\"Version\":\"v1.10.0\",\"Time\":\"2019-02-01T00:00:00Z\"}");
+    byte[] prerelease = bytes("{\"Version\":\"v2.0.0-rc.1\",\"Time\":\"2019-03-01T00:00:00Z\"}");
+
+    assertThat(VgoGroupFacet.mergeLatest(asList(hosted, proxied, prerelease)), is(proxied));
+  }
+
+  @Test
+  public void mergeLatestIgnoresInvalidInfos() {
+    byte[] valid = bytes("{\"Version\":\"v0.0.0-20190101000000-abcdefabcdef\"}");
+
+    assertThat(VgoGroupFacet.mergeLatest(asList(bytes("not json"), bytes("{}"), valid)), is(valid));
+    assertThat(VgoGroupFacet.mergeLatest(asList(bytes("not json"))), is(nullValue()));
+  }
+
+  @Test
+  public void fetchAnswer() throws Exception {
+    when(viewFacet.dispatch(request, context)).thenReturn(new Response.Builder()
+        .status(Status.success(OK))
+        .payload(new BytesPayload(bytes("v1.0.0"), TEXT_PLAIN))
+        .build());
+
+    assertThat(new String(VgoGroupFacet.fetch(context, member), UTF_8), is(equalTo("v1.0.0")));
+  }
+
+  @Test
+  public void fetchNotFoundIsEmpty() throws Exception {
+    when(viewFacet.dispatch(request, context)).thenReturn(new Response.Builder()
+        .status(Status.failure(NOT_FOUND))
+        .build());
+
+    assertThat(VgoGroupFacet.fetch(context, member), is(nullValue()));
+  }
+
+  @Test(expected = IOException.class)
+  public void fetchErrorFails() throws Exception {
+    when(viewFacet.dispatch(request, context)).thenReturn(new Response.Builder()
+        .status(Status.failure(BAD_GATEWAY))
+        .build());
+
+    VgoGroupFacet.fetch(context, member);
+  }
+
+  private static byte[] bytes(final String value) {
+    return value.getBytes(UTF_8);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.hosted;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.common.collect.NestedAttributesMap;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.Bucket;
+import org.sonatype.nexus.repository.storage.Component;
+import org.sonatype.nexus.repository.storage.StorageTx;
+import org.sonatype.nexus.repository.storage.TempBlob;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.transaction.UnitOfWork;
+import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+import org.sonatype.repository.vgo.internal.util.VgoDataAccess;
+import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_PACKAGE;
+
+public class VgoHostedFacetImplTest
+    extends TestSupport
+{
+  private static final String ZIP_PATH = "github.com/sonatype/example/@v/v1.0.0.zip";
+
+  private static final String MOD_PATH = "github.com/sonatype/example/@v/v1.0.0.mod";
+
+  @Mock
+  private VgoDataAccess vgoDataAccess;
+
+  @Mock
+  private VgoVersionCatalog versionCatalog;
+
+  @Mock
+  private Repository repository;
+
+  @Mock
+  private StorageTx tx;
+
+  @Mock
+  private Bucket bucket;
+
+  @Mock
+  private Component component;
+
+  @Mock
+  private Asset zip;
+
+  private VgoHostedFacetImpl underTest;
+
+  @Before
+  public void setUp() throws Exception {
+    when(tx.findBucket(repository)).thenReturn(bucket);
+    when(vgoDataAccess.findOrCreateComponent(eq(tx), eq(repository), eq(bucket), any(VgoAttributes.class)))
+        .thenReturn(component);
+    when(vgoDataAccess.findOrCreateAsset(tx, bucket, component, ZIP_PATH, VGO_PACKAGE)).thenReturn(zip);
+    when(zip.formatAttributes()).thenReturn(new NestedAttributesMap("attributes", new HashMap<>()));
+
+    underTest = new VgoHostedFacetImpl(vgoDataAccess, versionCatalog, new VgoPathUtils(), 1, 1, 1, 1);
+    underTest.attach(repository);
+    UnitOfWork.beginBatch(tx);
+  }
+
+  @After
+  public void tearDown() {
+    UnitOfWork.end();
+  }
+
+  @Test
+  public void reuploadWithoutGoModDeletesTheEarlierGoMod() throws Exception {
+    Asset earlierMod = mock(Asset.class);
+    when(vgoDataAccess.findAsset(tx, bucket, MOD_PATH)).thenReturn(earlierMod);
+    Set<String> changed = new HashSet<>();
+
+    underTest.saveContent(singletonList(upload()), changed);
+
+    verify(tx).deleteAsset(earlierMod);
+    assertThat(changed, hasItem(MOD_PATH));
+  }
+
+  private static VgoUpload upload() {
+    VgoAttributes vgoAttributes = new VgoAttributes();
+    vgoAttributes.setModule("github.com/sonatype/example");
+    vgoAttributes.setVersion("v1.0.0");
+    return new VgoUpload(ZIP_PATH, vgoAttributes, mock(TempBlob.class), null, null, null, null, mock(TempBlob.class),
+        mock(Content.class));
+  }
+}
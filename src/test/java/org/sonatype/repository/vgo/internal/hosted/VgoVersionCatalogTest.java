@@ -0,0 +1,125 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.hosted;
+
+import java.util.Date;
+import java.util.HashMap;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.nexus.common.collect.NestedAttributesMap;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.storage.Bucket;
+import org.sonatype.nexus.repository.storage.StorageTx;
+import org.sonatype.repository.vgo.internal.util.VgoDataAccess;
+import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.sonatype.repository.vgo.internal.hosted.VgoVersionCatalog.P_ETAG;
+import static org.sonatype.repository.vgo.internal.hosted.VgoVersionCatalog.P_LAST_MODIFIED;
+import static org.sonatype.repository.vgo.internal.hosted.VgoVersionCatalog.P_VERSIONS;
+
+public class VgoVersionCatalogTest
+{
+  private static final String MODULE = "example.com/m";
+
+  private final StorageTx tx = mock(StorageTx.class);
+
+  private final Repository repository = mock(Repository.class);
+
+  private final Bucket bucket = mock(Bucket.class);
+
+  private final VgoDataAccess vgoDataAccess = mock(VgoDataAccess.class);
+
+  @Test
+  public void ordersUpperCasePrereleasesByDecodedVersion() {
+    assertThat(VgoVersionCatalog.versionsByModule(asList(
+        "example.com/m/@v/v1.0.0-!r!c2.zip",
+        "example.com/m/@v/v0.0.0-20180807140117-3d7d8ee2cba0.zip",
+        "example.com/m/@v/v1.0.0-!r!c1.zip",
+        "example.com/m/@v/v1.0.0-!r!c1.info"
+    )).get("example.com/m"), contains(
+        "v0.0.0-20180807140117-3d7d8ee2cba0",
+        "v1.0.0-!r!c1",
+        "v1.0.0-!r!c2"
+    ));
+  }
+
+  @Test
+  public void latestOfUpperCasePrereleasesIsRecordedEncoded() {
+    assertThat(VgoVersionCatalog.latest(asList("v0.0.0-20180807140117-3d7d8ee2cba0", "v1.0.0-!r!c1", "v1.0.0-!r!c2")),
+        is("v1.0.0-!r!c2"));
+    assertThat(VgoVersionCatalog.latest(asList("v1.0.0-!r!c1", "v0.9.0")), is("v0.9.0"));
+    assertThat(VgoVersionCatalog.latest(asList("v1.0.0-RC1", "v0.0.1-pre")), is("v0.0.1-pre"));
+    assertThat(VgoVersionCatalog.latest(emptyList()), is(nullValue()));
+  }
+
+  @Test
+  public void listsDecodedVersions() {
+    assertThat(new String(VgoVersionCatalog.list(asList("v1.0.0-!r!c1", "v1.0.0")), UTF_8),
+        is("v1.0.0-RC1\nv1.0.0"));
+  }
+
+  @Test
+  public void listIsLastModifiedWhenTheNewestZipWasStored() {
+    DateTime stored = new DateTime(2018, 8, 7, 14, 1, 17);
+    Asset catalog = catalog(null);
+
+    catalogWith(catalog, stored).addVersion(tx, repository, MODULE, "v1.0.0");
+
+    assertThat(catalog.formatAttributes().get(P_LAST_MODIFIED, Date.class), is(stored.toDate()));
+  }
+
+  @Test
+  public void lastModifiedNeverMovesBackwards() {
+    Date earlier = new DateTime(2018, 8, 8, 0, 0).toDate();
+    Asset catalog = catalog(earlier);
+
+    catalogWith(catalog, new DateTime(2018, 8, 7, 14, 1, 17)).addVersion(tx, repository, MODULE, "v1.0.0");
+
+    assertThat(catalog.formatAttributes().get(P_LAST_MODIFIED, Date.class), is(earlier));
+  }
+
+  private Asset catalog(@Nullable final Date lastModified) {
+    Asset catalog = mock(Asset.class);
+    NestedAttributesMap attributes = new NestedAttributesMap("attributes", new HashMap<>());
+    attributes.set(P_VERSIONS, asList("v0.9.0"));
+    attributes.set(P_ETAG, "etag");
+    if (lastModified != null) {
+      attributes.set(P_LAST_MODIFIED, lastModified);
+    }
+    when(catalog.formatAttributes()).thenReturn(attributes);
+    return catalog;
+  }
+
+  private VgoVersionCatalog catalogWith(final Asset catalog, final DateTime zipStored) {
+    Asset zip = mock(Asset.class);
+    when(zip.blobCreated()).thenReturn(zipStored);
+    when(tx.findBucket(repository)).thenReturn(bucket);
+    when(vgoDataAccess.findAsset(tx, bucket, MODULE + "/@v/list")).thenReturn(catalog);
+    when(vgoDataAccess.findAsset(tx, bucket, MODULE + "/@v/v1.0.0.zip")).thenReturn(zip);
+    return new VgoVersionCatalog(vgoDataAccess, new VgoPathUtils());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.metadata;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class VgoCoordinatesTest
+{
+  private final VgoCoordinates underTest = VgoCoordinates.of("github.com/sonatype/example", "v1.0.2");
+
+  @Test
+  public void paths() {
+    assertThat(underTest.zipPath(), is(equalTo("github.com/sonatype/example/@v/v1.0.2.zip")));
+    assertThat(underTest.modPath(), is(equalTo("github.com/sonatype/example/@v/v1.0.2.mod")));
+    assertThat(underTest.infoPath(), is(equalTo("github.com/sonatype/example/@v/v1.0.2.info")));
+    assertThat(underTest.goModEntryPath(), is(equalTo("github.com/sonatype/example@v1.0.2/go.mod")));
+  }
+
+  @Test
+  public void taggedVersions() {
+    assertThat(underTest.isTagged(), is(true));
+    assertThat(VgoCoordinates.of("github.com/sonatype/example", "v2.0.0+incompatible").isTagged(), is(true));
+    assertThat(VgoCoordinates.of("github.com/sonatype/example", "v1.0.0-rc.1").isTagged(), is(true));
+    assertThat(VgoCoordinates.of("github.com/sonatype/example", "v0.0.0-20180807140117-3d7d8ee2cba0").isTagged(),
+        is(false));
+    assertThat(VgoCoordinates.of("github.com/sonatype/example", "v1.0.3-0.20180807140117-3d7d8ee2cba0").isTagged(),
+        is(false));
+    assertThat(VgoCoordinates.of("github.com/sonatype/example", "master").isTagged(), is(false));
+  }
+
+  @Test
+  public void parse() {
+    assertThat(VgoCoordinates.parse("./github.com/sonatype/example/@v/v1.0.2.zip", "zip"), is(equalTo(underTest)));
+    assertThat(VgoCoordinates.parse("/github.com/sonatype/example/@v/v1.0.2.info", "info"), is(equalTo(underTest)));
+  }
+
+  @Test
+  public void parseIsNotFooledByDots() {
+    // a regex built from the extension would take any character for the dot
+    assertThat(VgoCoordinates.parse("github.com/sonatype/example/@v/v1.0.2-zip", "zip"), is(nullValue()));
+
+    VgoCoordinates coordinates = VgoCoordinates.parse("github.com/sonatype/zip.example/@v/v1.0.2.mod", "mod");
+    assertThat(coordinates.zipPath(), is(equalTo("github.com/sonatype/zip.example/@v/v1.0.2.zip")));
+  }
+
+  @Test
+  public void parseRejectsOtherPaths() {
+    assertThat(VgoCoordinates.parse("github.com/sonatype/example/@v/v1.0.2.mod", "zip"), is(nullValue()));
+    assertThat(VgoCoordinates.parse("github.com/sonatype/example/v1.0.2.zip", "zip"), is(nullValue()));
+    assertThat(VgoCoordinates.parse("/@v/v1.0.2.zip", "zip"), is(nullValue()));
+    assertThat(VgoCoordinates.parse("github.com/sonatype/example/@v/.zip", "zip"), is(nullValue()));
+    assertThat(VgoCoordinates.parse("github.com/sonatype/example/@v/v1/v1.0.2.zip", "zip"), is(nullValue()));
+  }
+
+  @Test
+  public void caseEncodedSpellingsAreTheSame() {
+    VgoCoordinates encoded = VgoCoordinates.of("github.com/!azure/go-autorest", "v1.0.0-!r!c1");
+
+    assertThat(VgoCoordinates.of("github.com/Azure/go-autorest", "v1.0.0-RC1"), is(equalTo(encoded)));
+    assertThat(VgoCoordinates.parse("github.com/Azure/go-autorest/@v/v1.0.0-RC1.zip", "zip"), is(equalTo(encoded)));
+    assertThat(encoded.zipPath(), is(equalTo("github.com/!azure/go-autorest/@v/v1.0.0-!r!c1.zip")));
+    assertThat(encoded.goModEntryPath(), is(equalTo("github.com/Azure/go-autorest@v1.0.0-RC1/go.mod")));
+  }
+
+  @Test
+  public void toAttributes() {
+    VgoAttributes vgoAttributes = underTest.toAttributes();
+
+    assertThat(VgoCoordinates.of(vgoAttributes), is(equalTo(underTest)));
+  }
+}
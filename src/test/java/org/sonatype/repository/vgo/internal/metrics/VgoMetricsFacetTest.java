@@ -0,0 +1,139 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.metrics;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.Repository;
+import org.sonatype.nexus.repository.types.HostedType;
+import org.sonatype.repository.vgo.VgoAssetKind;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_LIST;
+import static org.sonatype.repository.vgo.VgoAssetKind.VGO_PACKAGE;
+import static org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet.Phase.DB_LOOKUP;
+import static org.sonatype.repository.vgo.internal.metrics.VgoMetricsFacet.Phase.ZIP_EXTRACTION;
+
+public class VgoMetricsFacetTest
+    extends TestSupport
+{
+  private static final String PREFIX = VgoMetricsFacet.class.getName() + ".hosted.go-hosted.";
+
+  @Mock
+  private Repository repository;
+
+  private MetricRegistry registry;
+
+  private VgoMetricsFacet underTest;
+
+  @Before
+  public void setUp() throws Exception {
+    when(repository.getType()).thenReturn(new HostedType());
+    when(repository.getName()).thenReturn("go-hosted");
+    registry = SharedMetricRegistries.getOrCreate("nexus");
+
+    underTest = new VgoMetricsFacet();
+    underTest.attach(repository);
+    underTest.doStart();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    underTest.doStop();
+  }
+
+  @Test
+  public void phasesAreRecordedForTheKindOfTheCurrentRequest() {
+    VgoAssetKind previous = VgoMetricsFacet.enter(VGO_LIST);
+    try {
+      underTest.update(DB_LOOKUP, System.nanoTime());
+      underTest.update(DB_LOOKUP, System.nanoTime());
+    }
+    finally {
+      VgoMetricsFacet.exit(previous);
+    }
+    underTest.update(DB_LOOKUP, System.nanoTime());
+
+    assertThat(registry.timer(PREFIX + "list.db_lookup").getCount(), is(2L));
+    assertThat(registry.timer(PREFIX + "other.db_lookup").getCount(), is(1L));
+  }
+
+  @Test
+  public void nestedRequestsRestoreTheKind() {
+    VgoAssetKind outer = VgoMetricsFacet.enter(VGO_LIST);
+    VgoAssetKind inner = VgoMetricsFacet.enter(VGO_PACKAGE);
+    underTest.update(ZIP_EXTRACTION, System.nanoTime());
+    VgoMetricsFacet.exit(inner);
+    underTest.update(DB_LOOKUP, System.nanoTime());
+    VgoMetricsFacet.exit(outer);
+
+    assertThat(outer, is(nullValue()));
+    assertThat(registry.timer(PREFIX + "package.zip_extraction").getCount(), is(1L));
+    assertThat(registry.timer(PREFIX + "list.db_lookup").getCount(), is(1L));
+  }
+
+  @Test
+  public void responsesAreCountedByStatusClass() {
+    underTest.count(VGO_PACKAGE, 200);
+    underTest.count(VGO_PACKAGE, 201);
+    underTest.count(VGO_PACKAGE, 404);
+
+    assertThat(registry.counter(PREFIX + "package.responses.2xx").getCount(), is(2L));
+    assertThat(registry.counter(PREFIX + "package.responses.4xx").getCount(), is(1L));
+  }
+
+  @Test
+  public void metricsAreRemovedOnStop() throws Exception {
+    underTest.update(VGO_PACKAGE, ZIP_EXTRACTION, System.nanoTime());
+    assertThat(registry.getTimers(), hasKey(PREFIX + "package.zip_extraction"));
+
+    underTest.doStop();
+    underTest.update(VGO_PACKAGE, ZIP_EXTRACTION, System.nanoTime());
+    assertThat(registry.getTimers(), not(hasKey(PREFIX + "package.zip_extraction")));
+
+    underTest.doStart();
+  }
+
+  @Test
+  public void metricsOfRepositoriesSharingThePrefixAreKept() throws Exception {
+    Repository other = mock(Repository.class);
+    when(other.getType()).thenReturn(new HostedType());
+    when(other.getName()).thenReturn("go-hosted.other");
+    VgoMetricsFacet otherFacet = new VgoMetricsFacet();
+    otherFacet.attach(other);
+    otherFacet.doStart();
+    try {
+      otherFacet.update(VGO_PACKAGE, ZIP_EXTRACTION, System.nanoTime());
+
+      underTest.doStop();
+      underTest.doStart();
+
+      assertThat(registry.getTimers(), hasKey(PREFIX + "other.package.zip_extraction"));
+    }
+    finally {
+      otherFacet.doStop();
+    }
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.proxy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.payloads.StreamPayload;
+
+import com.google.common.io.ByteStreams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static com.google.common.net.HttpHeaders.RANGE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.fail;
+import static org.sonatype.nexus.repository.http.HttpMethods.GET;
+import static org.sonatype.nexus.repository.http.HttpMethods.HEAD;
+
+public class VgoFetchThroughPayloadTest
+    extends TestSupport
+{
+  private static final byte[] ZIP = new byte[100_000];
+
+  private static final String PATH = "/example.com/m/@v/v1.0.0.zip";
+
+  private ScheduledExecutorService scheduler;
+
+  private ByteArrayOutputStream stored;
+
+  private Content storedContent;
+
+  private volatile boolean released;
+
+  private volatile boolean remoteReleased;
+
+  @Before
+  public void setUp() {
+    new Random(42).nextBytes(ZIP);
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    stored = new ByteArrayOutputStream();
+    storedContent = new Content(new StreamPayload(() -> new ByteArrayInputStream(stored.toByteArray()), -1, null));
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void sendsWhileStoring() throws Exception {
+    VgoFetchThroughPayload underTest = fetchThrough(ZIP.length, 1, MINUTES);
+    ByteArrayOutputStream client = new ByteArrayOutputStream();
+
+    copy(underTest, client);
+
+    assertThat(client.toByteArray(), is(equalTo(ZIP)));
+    assertThat(stored.toByteArray(), is(equalTo(ZIP)));
+    assertThat(stored(underTest), is(sameInstance(storedContent)));
+  }
+
+  @Test
+  public void storesWhenClientGoesAway() throws Exception {
+    VgoFetchThroughPayload underTest = fetchThrough(ZIP.length, 1, MINUTES);
+    OutputStream client = new FilterOutputStream(new ByteArrayOutputStream())
+    {
+      @Override
+      public void write(final byte[] b, final int off, final int len) throws IOException {
+        throw new IOException("Client went away");
+      }
+    };
+
+    try {
+      copy(underTest, client);
+      fail("Expected the client failure");
+    }
+    catch (IOException e) {
+      assertThat(e.getMessage(), is("Client went away"));
+    }
+
+    assertThat(stored.toByteArray(), is(equalTo(ZIP)));
+    assertThat(stored(underTest), is(sameInstance(storedContent)));
+  }
+
+  @Test
+  public void truncatedResponseIsNotStored() throws Exception {
+    VgoFetchThroughPayload underTest = fetchThrough(ZIP.length + 1, 1, MINUTES);
+
+    try {
+      copy(underTest, new ByteArrayOutputStream());
+      fail("Expected the truncated response to fail");
+    }
+    catch (IOException e) {
+      // expected
+    }
+
+    try {
+      stored(underTest);
+      fail("Expected storing to fail");
+    }
+    catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(IOException.class)));
+    }
+  }
+
+  @Test
+  public void onlyWholeContentIsFetchedThrough() {
+    assertThat(VgoFetchThroughPayload.isWholeContent(request(GET)), is(true));
+    assertThat(VgoFetchThroughPayload.isWholeContent(request(HEAD)), is(false));
+    assertThat(VgoFetchThroughPayload.isWholeContent(
+        new Request.Builder().action(GET).path(PATH).header(RANGE, "bytes=0-99").build()), is(false));
+  }
+
+  /**
+   * The proxy closes the remote response once store returned content other than it, before the content is sent.
+   */
+  @Test
+  public void retainedRemoteResponseIsReleasedOnceSent() throws Exception {
+    Content remote = VgoFetchThroughPayload.retain(remote(ZIP.length));
+    VgoFetchThroughPayload underTest = fetchThrough(remote, 1, MINUTES);
+
+    remote.close();
+    assertThat(remoteReleased, is(false));
+
+    ByteArrayOutputStream client = new ByteArrayOutputStream();
+    copy(underTest, client);
+
+    assertThat(client.toByteArray(), is(equalTo(ZIP)));
+    assertThat(stored.toByteArray(), is(equalTo(ZIP)));
+    assertThat(remoteReleased, is(true));
+  }
+
+  @Test
+  public void retainedRemoteResponseNotFetchedThroughIsReleasedWhenClosed() throws Exception {
+    Content remote = VgoFetchThroughPayload.retain(remote(ZIP.length));
+
+    remote.close();
+
+    assertThat(remoteReleased, is(true));
+  }
+
+  @Test
+  public void retainedRemoteResponseIsReleasedWhenNotSentInTime() throws Exception {
+    Content remote = VgoFetchThroughPayload.retain(remote(ZIP.length));
+    VgoFetchThroughPayload underTest = fetchThrough(remote, 10, MILLISECONDS);
+    remote.close();
+
+    try {
+      underTest.stored().toCompletableFuture().get(10, SECONDS);
+      fail("Expected storing to fail");
+    }
+    catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+    }
+    assertThat(remoteReleased, is(true));
+  }
+
+  @Test
+  public void releasesRemoteResponseNotSentInTime() throws Exception {
+    VgoFetchThroughPayload underTest = fetchThrough(ZIP.length, 10, MILLISECONDS);
+
+    try {
+      underTest.stored().toCompletableFuture().get(10, SECONDS);
+      fail("Expected storing to fail");
+    }
+    catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+    }
+    assertThat(released, is(true));
+
+    try {
+      copy(underTest, new ByteArrayOutputStream());
+      fail("Expected released content not to be sent");
+    }
+    catch (IOException e) {
+      // expected
+    }
+    assertThat(stored.size(), is(0));
+  }
+
+  private static Request request(final String action) {
+    return new Request.Builder().action(action).path(PATH).build();
+  }
+
+  private VgoFetchThroughPayload fetchThrough(final long declaredSize, final long startTimeout, final TimeUnit unit) {
+    return fetchThrough(remote(declaredSize), startTimeout, unit);
+  }
+
+  private Content remote(final long declaredSize) {
+    return new Content(new StreamPayload(() -> new ByteArrayInputStream(ZIP)
+    {
+      @Override
+      public void close() throws IOException {
+        released = true;
+        super.close();
+      }
+    }, declaredSize, null)
+    {
+      @Override
+      public void close() {
+        remoteReleased = true;
+      }
+    });
+  }
+
+  private VgoFetchThroughPayload fetchThrough(final Content fetched, final long startTimeout, final TimeUnit unit) {
+    return new VgoFetchThroughPayload(fetched, content -> {
+      try (InputStream in = content.openInputStream()) {
+        ByteStreams.copy(in, stored);
+      }
+      return storedContent;
+    }, () -> null, scheduler, startTimeout, unit);
+  }
+
+  private static Content stored(final VgoFetchThroughPayload payload) throws Exception {
+    return payload.stored().toCompletableFuture().get(1, SECONDS);
+  }
+
+  private static void copy(final VgoFetchThroughPayload payload, final OutputStream client) throws IOException {
+    try (InputStream in = payload.openInputStream()) {
+      payload.copy(in, client);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.proxy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.common.collect.AttributesMap;
+import org.sonatype.nexus.repository.storage.Asset;
+import org.sonatype.nexus.repository.view.Content;
+import org.sonatype.nexus.repository.view.Context;
+import org.sonatype.nexus.repository.view.Headers;
+import org.sonatype.nexus.repository.view.Request;
+import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
+import org.sonatype.nexus.repository.view.payloads.BytesPayload;
+import org.sonatype.repository.vgo.VgoAssetKind;
+import org.sonatype.repository.vgo.internal.util.VgoDataAccess;
+import org.sonatype.repository.vgo.internal.util.VgoPathUtils;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.sonatype.nexus.repository.http.HttpMethods.GET;
+
+public class VgoProxyFacetImplTest
+    extends TestSupport
+{
+  private static final int REQUESTS = 2;
+
+  @Mock
+  private VgoDataAccess vgoDataAccess;
+
+  private final AtomicInteger upstream = new AtomicInteger();
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private volatile boolean stored;
+
+  private volatile VgoFetchThroughPayload fetchThrough;
+
+  private ExecutorService executor;
+
+  private ScheduledExecutorService scheduler;
+
+  private VgoProxyFacetImpl underTest;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(REQUESTS);
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    underTest = new VgoProxyFacetImpl(new VgoPathUtils(), vgoDataAccess)
+    {
+      @Override
+      Content getUncoalesced(final Context context) throws IOException {
+        upstream.incrementAndGet();
+        if (fetchThrough != null) {
+          return fetchThrough.toContent();
+        }
+        try {
+          release.await();
+        }
+        catch (InterruptedException e) {
+          throw new InterruptedIOException();
+        }
+        stored = true;
+        return storedContent();
+      }
+
+      @Override
+      protected Content getCachedContent(final Context context) {
+        return stored ? storedContent() : null;
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void concurrentMissesGetContentOfTheirOwn() throws Exception {
+    List<Future<Content>> futures = new ArrayList<>();
+    for (int i = 0; i < REQUESTS; i++) {
+      Context context = context();
+      futures.add(executor.submit(() -> underTest.get(context)));
+    }
+    // wait until the first request is fetching, give the other time to join it
+    while (upstream.get() == 0) {
+      Thread.sleep(1);
+    }
+    Thread.sleep(100);
+    release.countDown();
+
+    Content first = futures.get(0).get(5, TimeUnit.SECONDS);
+    Content second = futures.get(1).get(5, TimeUnit.SECONDS);
+
+    assertThat(upstream.get(), is(1));
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(second.getAttributes().get(Asset.class), is(not(sameInstance(first.getAttributes().get(Asset.class)))));
+  }
+
+  @Test
+  public void requestsArrivingWhileFetchedThroughWaitUntilStored() throws Exception {
+    fetchThrough = new VgoFetchThroughPayload(new Content(new BytesPayload(new byte[]{1, 2, 3}, "application/zip")),
+        content -> {
+          try (InputStream in = content.openInputStream()) {
+            ByteStreams.exhaust(in);
+          }
+          stored = true;
+          return storedContent();
+        }, () -> null, scheduler, 1, TimeUnit.MINUTES);
+
+    Content first = underTest.get(context());
+    Future<Content> second = executor.submit(() -> underTest.get(context()));
+    Thread.sleep(100);
+    assertThat(second.isDone(), is(false));
+
+    VgoFetchThroughPayload payload = first.getAttributes().get(VgoFetchThroughPayload.class);
+    try (InputStream in = payload.openInputStream()) {
+      payload.copy(in, new ByteArrayOutputStream());
+    }
+
+    assertThat(second.get(5, TimeUnit.SECONDS).getAttributes().get(Asset.class), is(notNullValue()));
+    assertThat(upstream.get(), is(1));
+  }
+
+  private static Context context() {
+    TokenMatcher.State state = mock(TokenMatcher.State.class);
+    when(state.getTokens()).thenReturn(ImmutableMap.of(
+        "module", "github.com/sonatype/example", "version", "v1.0.0", "extension", "zip"));
+    AttributesMap attributes = new AttributesMap();
+    attributes.set(VgoAssetKind.class, VgoAssetKind.VGO_PACKAGE);
+    attributes.set(TokenMatcher.State.class, state);
+    Request request = mock(Request.class);
+    when(request.getAction()).thenReturn(GET);
+    when(request.getHeaders()).thenReturn(new Headers());
+    Context context = mock(Context.class);
+    when(context.getAttributes()).thenReturn(attributes);
+    when(context.getRequest()).thenReturn(request);
+    return context;
+  }
+
+  private static Content storedContent() {
+    Content content = new Content(new BytesPayload(new byte[]{1, 2, 3}, "application/zip"));
+    content.getAttributes().set(Asset.class, mock(Asset.class));
+    return content;
+  }
+}
@@ -15,7 +15,8 @@ package org.sonatype.repository.vgo.internal.util;
 import java.io.InputStream;
 
 import com.google.common.base.Charsets;
-import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -27,36 +28,88 @@ public class CompressedContentExtractorTest
 {
   @Test
   public void canExtractFile() throws Exception {
-    InputStream project = getClass().getResourceAsStream("sonatype.zip");
-    InputStream goMod = getClass().getResourceAsStream("go.mod");
+    byte[] goMod = read("go.mod");
 
-    InputStream result = CompressedContentExtractor.extractFile(project, "go.mod");
+    try (InputStream result = CompressedContentExtractor.openEntry(
+        new SeekableInMemoryByteChannel(read("sonatype.zip")), "sonatype/example/go.mod")) {
+      assertThat(ByteStreams.toByteArray(result), is(equalTo(goMod)));
+    }
+  }
 
-    String goModFromProject = new ByteSource()
-    {
-      @Override
-      public InputStream openStream() {
-        return result;
-      }
-    }.asCharSource(Charsets.UTF_8).read();
+  @Test
+  public void entryNotFound() throws Exception {
+    try (ZipEntryCapture capture = new ZipEntryCapture("does_not_exist.txt", 1024)) {
+      boolean found = CompressedContentExtractor.extractEntry(
+          new SeekableInMemoryByteChannel(read("sonatype.zip")), "does_not_exist.txt", 1024, capture);
+
+      assertThat(found, is(false));
+    }
+  }
 
-    String goModAsString = new ByteSource()
-    {
-      @Override
-      public InputStream openStream() {
-        return goMod;
+  @Test
+  public void centralDirectoryMatchesExactPath() throws Exception {
+    try (ZipEntryCapture capture = new ZipEntryCapture("go.mod", 1024)) {
+      boolean found = CompressedContentExtractor.extractEntry(
+          new SeekableInMemoryByteChannel(read("example.zip")), "go.mod", 1024, capture);
+
+      assertThat(found, is(false));
+      assertThat(capture.isCaptured(), is(false));
+    }
+  }
+
+  @Test
+  public void canStreamModuleRootGoModFromCentralDirectory() throws Exception {
+    try (ZipEntryCapture capture = new ZipEntryCapture("github.com/sonatype/example@v1.0.0/go.mod", 1024)) {
+      boolean found = CompressedContentExtractor.extractEntry(
+          new SeekableInMemoryByteChannel(read("example.zip")), "github.com/sonatype/example@v1.0.0/go.mod", 1024,
+          capture);
+
+      assertThat(found, is(true));
+      try (InputStream in = capture.openStream()) {
+        assertThat(new String(ByteStreams.toByteArray(in), Charsets.UTF_8),
+            is(equalTo("module github.com/sonatype/example\n\nrequire github.com/jung-kurt/gofpdf v1.0.2\n")));
       }
-    }.asCharSource(Charsets.UTF_8).read();
+    }
+  }
 
-    assertThat(goModFromProject, is(equalTo(goModAsString)));
+  @Test
+  public void streamedEntryTooLarge() throws Exception {
+    try (ZipEntryCapture capture = new ZipEntryCapture("github.com/sonatype/example@v1.0.0/go.mod", 10)) {
+      boolean found = CompressedContentExtractor.extractEntry(
+          new SeekableInMemoryByteChannel(read("example.zip")), "github.com/sonatype/example@v1.0.0/go.mod", 10,
+          capture);
+
+      assertThat(found, is(false));
+      assertThat(capture.isCaptured(), is(false));
+    }
   }
 
   @Test
-  public void entryNotFound() {
-    InputStream project = getClass().getResourceAsStream("sonatype.zip");
+  public void canOpenModuleRootGoModFromCentralDirectory() throws Exception {
+    String entryName = "github.com/sonatype/example@v1.0.0/go.mod";
+    String expected = "module github.com/sonatype/example\n\nrequire github.com/jung-kurt/gofpdf v1.0.2\n";
+
+    long size = CompressedContentExtractor.entrySize(
+        new SeekableInMemoryByteChannel(read("example.zip")), entryName, 1024);
+    assertThat(size, is(equalTo((long) expected.length())));
 
-    InputStream response = CompressedContentExtractor.extractFile(project, "does_not_exist.txt");
+    try (InputStream in = CompressedContentExtractor.openEntry(
+        new SeekableInMemoryByteChannel(read("example.zip")), entryName)) {
+      assertThat(new String(ByteStreams.toByteArray(in), Charsets.UTF_8), is(equalTo(expected)));
+    }
+  }
+
+  @Test
+  public void openedEntryNotFound() throws Exception {
+    assertThat(CompressedContentExtractor.entrySize(
+        new SeekableInMemoryByteChannel(read("example.zip")), "go.mod", 1024), is(equalTo(-1L)));
+    assertThat(CompressedContentExtractor.openEntry(
+        new SeekableInMemoryByteChannel(read("example.zip")), "go.mod"), is(nullValue()));
+  }
 
-    assertThat(response, is(nullValue()));
+  private byte[] read(final String resource) throws Exception {
+    try (InputStream in = getClass().getResourceAsStream(resource)) {
+      return ByteStreams.toByteArray(in);
+    }
   }
 }
@@ -0,0 +1,158 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.annotation.Nullable;
+
+import org.sonatype.repository.vgo.internal.util.DirHash.ZipHashHandler;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class DirHashTest
+{
+  private static final String ZIP_HASH = "h1:hQMOBsBti2b8mRMjolDwCaxvibUv/+8UTtz2yWleKDE=";
+
+  @Test
+  public void hashGoMod() {
+    String hash = DirHash.hashGoMod(
+        "module github.com/sonatype/example\n\nrequire github.com/jung-kurt/gofpdf v1.0.2\n".getBytes(Charsets.UTF_8));
+
+    assertThat(hash, is(equalTo("h1:5rXrvkHCdxw/qPqMawh7QEP2jzxD33Fukn28fGpXb2M=")));
+  }
+
+  @Test
+  public void hashZipWhileStreaming() throws Exception {
+    ZipHashHandler handler = new ZipHashHandler();
+
+    try (ZipScanningInputStream in = new ZipScanningInputStream(getClass().getResourceAsStream("example.zip"),
+        handler)) {
+      ByteStreams.exhaust(in);
+    }
+
+    assertThat(handler.getHash(), is(equalTo(ZIP_HASH)));
+  }
+
+  @Test
+  public void hashZipFromCentralDirectory() throws Exception {
+    byte[] zip;
+    try (InputStream in = getClass().getResourceAsStream("example.zip")) {
+      zip = ByteStreams.toByteArray(in);
+    }
+
+    assertThat(DirHash.hashZip(new SeekableInMemoryByteChannel(zip)), is(equalTo(ZIP_HASH)));
+  }
+
+  @Test
+  public void scannedEntriesMatchCentralDirectory() throws Exception {
+    ZipHashHandler handler = scan();
+
+    assertThat(handler.matchesCentralDirectory(new SeekableInMemoryByteChannel(example())), is(true));
+  }
+
+  @Test
+  public void staleLocalEntryDoesNotMatchCentralDirectory() throws Exception {
+    ZipHashHandler handler = scan();
+    // a local entry left in the zip without a central directory entry
+    handler.startEntry("github.com/sonatype/example@v1.0.0/stale.go");
+    handler.content(new byte[]{'x'}, 0, 1);
+    handler.endEntry();
+    handler.entryLocation(example().length, 1);
+
+    assertThat(handler.matchesCentralDirectory(new SeekableInMemoryByteChannel(example())), is(false));
+  }
+
+  @Test
+  public void duplicateLocalEntryDoesNotMatchCentralDirectory() throws Exception {
+    ZipHashHandler handler = scan();
+    // the same entries once more, as if the zip was appended to itself
+    try (ZipScanningInputStream in = new ZipScanningInputStream(getClass().getResourceAsStream("example.zip"),
+        handler)) {
+      ByteStreams.exhaust(in);
+    }
+    assertThat(handler.matchesCentralDirectory(new SeekableInMemoryByteChannel(example())), is(false));
+  }
+
+  @Test
+  public void differentlyCompressedEntryDoesNotMatchCentralDirectory() throws Exception {
+    ZipHashHandler handler = scan(new ByteArrayInputStream(zip(ZipEntry.DEFLATED, null)));
+
+    assertThat(handler.matchesCentralDirectory(new SeekableInMemoryByteChannel(zip(ZipEntry.DEFLATED, null))),
+        is(true));
+    assertThat(handler.matchesCentralDirectory(new SeekableInMemoryByteChannel(zip(ZipEntry.STORED, null))),
+        is(false));
+  }
+
+  @Test
+  public void entryAtAnotherOffsetDoesNotMatchCentralDirectory() throws Exception {
+    ZipHashHandler handler = scan(new ByteArrayInputStream(zip(ZipEntry.DEFLATED, null)));
+    // an extra field in the local header moves the content of the entry
+    byte[] extra = {0x66, 0x66, 2, 0, 1, 2};
+
+    assertThat(handler.matchesCentralDirectory(new SeekableInMemoryByteChannel(zip(ZipEntry.DEFLATED, extra))),
+        is(false));
+  }
+
+  private ZipHashHandler scan() throws Exception {
+    return scan(getClass().getResourceAsStream("example.zip"));
+  }
+
+  private static ZipHashHandler scan(final InputStream zip) throws Exception {
+    ZipHashHandler handler = new ZipHashHandler();
+    try (ZipScanningInputStream in = new ZipScanningInputStream(zip, handler)) {
+      ByteStreams.exhaust(in);
+    }
+    return handler;
+  }
+
+  private static byte[] zip(final int method, @Nullable final byte[] extra) throws Exception {
+    byte[] goMod = ("module github.com/sonatype/example\n" + Strings.repeat("\n", 100)).getBytes(Charsets.UTF_8);
+    ByteArrayOutputStream zip = new ByteArrayOutputStream();
+    try (ZipOutputStream out = new ZipOutputStream(zip)) {
+      ZipEntry entry = new ZipEntry("github.com/sonatype/example@v1.0.0/go.mod");
+      entry.setMethod(method);
+      entry.setExtra(extra);
+      if (method == ZipEntry.STORED) {
+        CRC32 crc = new CRC32();
+        crc.update(goMod);
+        entry.setCrc(crc.getValue());
+        entry.setSize(goMod.length);
+        entry.setCompressedSize(goMod.length);
+      }
+      out.putNextEntry(entry);
+      out.write(goMod);
+      out.closeEntry();
+    }
+    return zip.toByteArray();
+  }
+
+  private byte[] example() throws Exception {
+    try (InputStream in = getClass().getResourceAsStream("example.zip")) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+public class GoModParserTest
+{
+  @Test
+  public void singleLineRequires() {
+    List<VgoAttributes> requires = GoModParser.parseRequires(
+        "module github.com/sonatype/example\n\nrequire github.com/jung-kurt/gofpdf v1.0.2\n");
+
+    assertThat(names(requires), contains("github.com/jung-kurt/gofpdf@v1.0.2"));
+  }
+
+  @Test
+  public void requireBlocks() {
+    List<VgoAttributes> requires = GoModParser.parseRequires("module example.com/a\n" +
+        "\n" +
+        "go 1.12\n" +
+        "\n" +
+        "require (\n" +
+        "\tgolang.org/x/text v0.3.0 // indirect\n" +
+        "\t\"example.com/quoted\" v1.2.3\n" +
+        "\n" +
+        "\t// a comment\n" +
+        "\texample.com/pseudo v0.0.0-20190101000000-abcdefabcdef\n" +
+        ")\n" +
+        "\n" +
+        "require example.com/single v2.0.0+incompatible\n" +
+        "\n" +
+        "replace example.com/single => ../single\n" +
+        "exclude example.com/excluded v1.0.0\n");
+
+    assertThat(names(requires), contains(
+        "golang.org/x/text@v0.3.0",
+        "example.com/quoted@v1.2.3",
+        "example.com/pseudo@v0.0.0-20190101000000-abcdefabcdef",
+        "example.com/single@v2.0.0+incompatible"));
+  }
+
+  @Test
+  public void malformedLinesAreSkipped() {
+    List<VgoAttributes> requires = GoModParser.parseRequires("module example.com/a\n" +
+        "require example.com/noversion\n" +
+        "require example.com/badversion master\n" +
+        "requirement example.com/b v1.0.0\n");
+
+    assertThat(requires, empty());
+  }
+
+  @Test
+  public void readsFromReader() throws Exception {
+    List<VgoAttributes> requires = GoModParser.parseRequires(new StringReader("module example.com/a\r\n" +
+        "require (\r\n" +
+        "\texample.com/b v1.0.0\r\n" +
+        ")\r\n"));
+
+    assertThat(names(requires), contains("example.com/b@v1.0.0"));
+  }
+
+  private static List<String> names(final List<VgoAttributes> requires) {
+    return requires.stream().map(require -> require.getModule() + "@" + require.getVersion())
+        .collect(Collectors.toList());
+  }
+}
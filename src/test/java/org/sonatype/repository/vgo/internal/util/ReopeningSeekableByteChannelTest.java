@@ -0,0 +1,74 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Charsets;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ReopeningSeekableByteChannelTest
+{
+  private static final byte[] CONTENT = "0123456789".getBytes(Charsets.US_ASCII);
+
+  private AtomicInteger opened;
+
+  private ReopeningSeekableByteChannel underTest;
+
+  @Before
+  public void setUp() {
+    opened = new AtomicInteger();
+    underTest = new ReopeningSeekableByteChannel(() -> {
+      opened.incrementAndGet();
+      return (InputStream) new ByteArrayInputStream(CONTENT);
+    }, CONTENT.length);
+  }
+
+  @Test
+  public void seekForwardSkipsOnSameStream() throws Exception {
+    assertThat(read(2, 3), is(equalTo("234")));
+    assertThat(read(7, 2), is(equalTo("78")));
+    assertThat(opened.get(), is(1));
+  }
+
+  @Test
+  public void seekBackwardReopens() throws Exception {
+    assertThat(read(7, 2), is(equalTo("78")));
+    assertThat(read(1, 2), is(equalTo("12")));
+    assertThat(opened.get(), is(2));
+  }
+
+  @Test
+  public void readPastEnd() throws Exception {
+    underTest.position(CONTENT.length);
+
+    assertThat(underTest.read(ByteBuffer.allocate(1)), is(-1));
+  }
+
+  private String read(final long position, final int length) throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    underTest.position(position);
+    while (buffer.hasRemaining() && underTest.read(buffer) > 0) {
+      // keep reading
+    }
+    return new String(buffer.array(), Charsets.US_ASCII);
+  }
+}
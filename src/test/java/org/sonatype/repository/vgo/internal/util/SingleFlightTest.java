@@ -0,0 +1,138 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest
+{
+  private static final int CALLERS = 8;
+
+  private SingleFlight<String, String> underTest;
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    underTest = new SingleFlight<>();
+    executor = Executors.newFixedThreadPool(CALLERS);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void concurrentCallsAreCoalesced() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<?>[] futures = new Future<?>[CALLERS];
+    for (int i = 0; i < CALLERS; i++) {
+      futures[i] = executor.submit(() -> underTest.run("key", () -> {
+        calls.incrementAndGet();
+        release.await();
+        return "value";
+      }));
+    }
+    // wait until the first call is running, give the others time to join it
+    while (underTest.size() == 0) {
+      Thread.sleep(1);
+    }
+    Thread.sleep(100);
+    release.countDown();
+
+    for (Future<?> future : futures) {
+      assertThat(future.get(5, TimeUnit.SECONDS), is(equalTo("value")));
+    }
+    assertThat(calls.get(), is(1));
+    assertThat(underTest.size(), is(0));
+  }
+
+  @Test
+  public void callsStayInFlightUntilLanded() throws Exception {
+    CompletableFuture<Void> landed = new CompletableFuture<>();
+
+    assertThat(underTest.run("key", () -> "value", result -> landed), is(equalTo("value")));
+    Future<String> second = executor.submit(() -> underTest.run("key", () -> "not called"));
+    Thread.sleep(100);
+    assertThat(second.isDone(), is(false));
+
+    landed.completeExceptionally(new IOException("failed"));
+
+    assertThat(second.get(5, TimeUnit.SECONDS), is(equalTo("value")));
+    assertThat(underTest.size(), is(0));
+  }
+
+  @Test
+  public void sequentialCallsAreNotCached() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+
+    underTest.run("key", calls::incrementAndGet);
+    underTest.run("key", calls::incrementAndGet);
+
+    assertThat(calls.get(), is(2));
+  }
+
+  @Test
+  public void differentKeysRunSeparately() throws Exception {
+    assertThat(underTest.run("a", () -> "1"), is(equalTo("1")));
+    assertThat(underTest.run("b", () -> "2"), is(equalTo("2")));
+  }
+
+  @Test
+  public void failuresAreShared() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<String> first = executor.submit(() -> underTest.run("key", () -> {
+      release.await();
+      throw new IOException("failed");
+    }));
+    while (underTest.size() == 0) {
+      Thread.sleep(1);
+    }
+    Future<String> second = executor.submit(() -> underTest.run("key", () -> "not called"));
+    Thread.sleep(100);
+    release.countDown();
+
+    for (Future<String> future : asList(first, second)) {
+      try {
+        future.get(5, TimeUnit.SECONDS);
+        fail();
+      }
+      catch (ExecutionException e) {
+        assertThat(e.getCause(), is(instanceOf(IOException.class)));
+      }
+    }
+  }
+}
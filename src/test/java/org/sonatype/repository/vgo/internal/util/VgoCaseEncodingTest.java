@@ -0,0 +1,68 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class VgoCaseEncodingTest
+{
+  @Test
+  public void encode() {
+    assertThat(VgoCaseEncoding.encode("github.com/Azure/azure-sdk-for-go"),
+        is(equalTo("github.com/!azure/azure-sdk-for-go")));
+    assertThat(VgoCaseEncoding.encode("v1.0.0-RC1"), is(equalTo("v1.0.0-!r!c1")));
+  }
+
+  @Test
+  public void encodeKeepsLowerCasePaths() {
+    String path = "github.com/sonatype/example";
+
+    assertThat(VgoCaseEncoding.encode(path), is(sameInstance(path)));
+  }
+
+  @Test
+  public void decode() {
+    assertThat(VgoCaseEncoding.decode("github.com/!azure/azure-sdk-for-go"),
+        is(equalTo("github.com/Azure/azure-sdk-for-go")));
+    assertThat(VgoCaseEncoding.decode("v1.0.0-!r!c1"), is(equalTo("v1.0.0-RC1")));
+    assertThat(VgoCaseEncoding.decode("github.com/sonatype/example"), is(equalTo("github.com/sonatype/example")));
+  }
+
+  @Test
+  public void decodeRejectsInvalidEncodings() {
+    assertThat(VgoCaseEncoding.decode("github.com/Azure/azure-sdk-for-go"), is(nullValue()));
+    assertThat(VgoCaseEncoding.decode("github.com/!Azure"), is(nullValue()));
+    assertThat(VgoCaseEncoding.decode("github.com/!1"), is(nullValue()));
+    assertThat(VgoCaseEncoding.decode("github.com/azure!"), is(nullValue()));
+  }
+
+  @Test
+  public void normalizeMapsAllSpellingsToTheEncodedForm() {
+    String encoded = "github.com/!azure/!go-autorest";
+
+    assertThat(VgoCaseEncoding.normalize(encoded), is(equalTo(encoded)));
+    assertThat(VgoCaseEncoding.normalize("github.com/Azure/Go-autorest"), is(equalTo(encoded)));
+    assertThat(VgoCaseEncoding.normalize("github.com/!azure/Go-autorest"), is(equalTo(encoded)));
+  }
+
+  @Test
+  public void normalizeKeepsLowerCasePathsDistinct() {
+    assertThat(VgoCaseEncoding.normalize("github.com/azure/go-autorest"), is(equalTo("github.com/azure/go-autorest")));
+  }
+}
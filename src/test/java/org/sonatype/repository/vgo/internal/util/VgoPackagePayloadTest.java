@@ -0,0 +1,53 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sonatype.nexus.blobstore.api.Blob;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.sonatype.repository.vgo.internal.util.VgoPackagePayload.COPY_BUFFER_SIZE;
+
+public class VgoPackagePayloadTest
+{
+  @Test
+  public void copiesInLargeChunks() throws Exception {
+    byte[] content = new byte[COPY_BUFFER_SIZE * 3 + 17];
+    new Random(42).nextBytes(content);
+    AtomicInteger reads = new AtomicInteger();
+    InputStream input = new ByteArrayInputStream(content)
+    {
+      @Override
+      public synchronized int read(final byte[] b, final int off, final int len) {
+        reads.incrementAndGet();
+        return super.read(b, off, len);
+      }
+    };
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    new VgoPackagePayload(mock(Blob.class), "application/zip").copy(input, output);
+
+    assertThat(output.toByteArray(), is(equalTo(content)));
+    assertThat(reads.get(), is(5));
+  }
+}
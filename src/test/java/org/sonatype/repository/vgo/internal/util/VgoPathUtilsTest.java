@@ -13,7 +13,11 @@
 package org.sonatype.repository.vgo.internal.util;
 
 import org.sonatype.goodies.testsupport.TestSupport;
+import org.sonatype.nexus.common.collect.AttributesMap;
+import org.sonatype.nexus.repository.view.Context;
 import org.sonatype.nexus.repository.view.matchers.token.TokenMatcher;
+import org.sonatype.repository.vgo.internal.metadata.VgoAttributes;
+import org.sonatype.repository.vgo.internal.metadata.VgoCoordinates;
 
 import com.google.common.collect.ImmutableMap;
 import org.junit.Before;
@@ -22,7 +26,10 @@ import org.mockito.Mock;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class VgoPathUtilsTest
@@ -58,6 +65,19 @@ public class VgoPathUtilsTest
     assertThat(version, is(equalTo("v1.0.2")));
   }
 
+  @Test
+  public void moduleAndVersionAreCaseEncoded() {
+    when(state.getTokens()).thenReturn(ImmutableMap.of(
+        "module", "github.com/Azure/go-autorest",
+        "version", "v1.0.0-RC1",
+        "extension", "zip"
+    ));
+
+    assertThat(underTest.assetPath(state), is(equalTo("github.com/!azure/go-autorest/@v/v1.0.0-!r!c1.zip")));
+    assertThat(VgoCoordinates.of(underTest.module(state), underTest.version(state)).goModEntryPath(),
+        is(equalTo("github.com/Azure/go-autorest@v1.0.0-RC1/go.mod")));
+  }
+
   @Test
   public void extension() {
     String extension = underTest.extension(state);
@@ -78,4 +98,52 @@ public class VgoPathUtilsTest
 
     assertThat(listPath, is(equalTo("github.com/sonatype/example/@v/list")));
   }
+
+  @Test
+  public void latest() {
+    String latestPath = underTest.latestPath(state);
+
+    assertThat(latestPath, is(equalTo("github.com/sonatype/example/@latest")));
+  }
+
+  @Test
+  public void sumdbPath() {
+    when(state.getTokens()).thenReturn(ImmutableMap.of(
+        "sumdb", "sum.golang.org",
+        "path", "tile/8/0/x001/234.p/5"
+    ));
+
+    String sumdbPath = underTest.sumdbPath(state);
+
+    assertThat(sumdbPath, is(equalTo("sumdb/sum.golang.org/tile/8/0/x001/234.p/5")));
+  }
+
+  @Test
+  public void coordinatesAreKeptInTheContext() {
+    AttributesMap attributes = new AttributesMap();
+    attributes.set(TokenMatcher.State.class, state);
+    Context context = mock(Context.class);
+    when(context.getAttributes()).thenReturn(attributes);
+
+    VgoCoordinates coordinates = underTest.coordinates(context);
+
+    assertThat(coordinates.zipPath(), is(equalTo("github.com/sonatype/example/@v/v1.0.2.zip")));
+    assertThat(underTest.coordinates(context), is(sameInstance(coordinates)));
+  }
+
+  @Test
+  public void attributesFromPath() {
+    VgoAttributes vgoAttributes = underTest.attributesFromPath("./github.com/sonatype/example/@v/v1.0.2.zip", "zip");
+
+    assertThat(vgoAttributes.getModule(), is(equalTo("github.com/sonatype/example")));
+    assertThat(vgoAttributes.getVersion(), is(equalTo("v1.0.2")));
+  }
+
+  @Test
+  public void attributesFromPathRejectsOtherPaths() {
+    assertThat(underTest.attributesFromPath("github.com/sonatype/example/@v/v1.0.2.mod", "zip"), is(nullValue()));
+    assertThat(underTest.attributesFromPath("github.com/sonatype/example/v1.0.2.zip", "zip"), is(nullValue()));
+    assertThat(underTest.attributesFromPath("/@v/v1.0.2.zip", "zip"), is(nullValue()));
+    assertThat(underTest.attributesFromPath("github.com/sonatype/example/@v/.zip", "zip"), is(nullValue()));
+  }
 }
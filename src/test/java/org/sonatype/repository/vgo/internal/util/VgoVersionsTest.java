@@ -0,0 +1,116 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+public class VgoVersionsTest
+{
+  @Test
+  public void isValid() {
+    assertThat(VgoVersions.isValid("v1"), is(true));
+    assertThat(VgoVersions.isValid("v1.2"), is(true));
+    assertThat(VgoVersions.isValid("v1.2.3-pre.1+build"), is(true));
+    assertThat(VgoVersions.isValid("1.2.3"), is(false));
+    assertThat(VgoVersions.isValid("v1.2-pre"), is(false));
+    assertThat(VgoVersions.isValid("v01.2.3"), is(false));
+    assertThat(VgoVersions.isValid("v1.2.3-01"), is(false));
+    assertThat(VgoVersions.isValid("v1.2.3-"), is(false));
+    assertThat(VgoVersions.isValid("v1.2.3-a..b"), is(false));
+  }
+
+  @Test
+  public void compare() {
+    assertThat(VgoVersions.compare("v1.2.3", "v1.10.0"), is(lessThan(0)));
+    assertThat(VgoVersions.compare("v1.2.3", "v1.2.3-pre"), is(greaterThan(0)));
+    assertThat(VgoVersions.compare("v1.2.3-alpha", "v1.2.3-alpha.1"), is(lessThan(0)));
+    assertThat(VgoVersions.compare("v1.2.3-2", "v1.2.3-10"), is(lessThan(0)));
+    assertThat(VgoVersions.compare("v1.2.3-10", "v1.2.3-beta"), is(lessThan(0)));
+    assertThat(VgoVersions.compare("v1.2", "v1.2.0"), is(equalTo(0)));
+    assertThat(VgoVersions.compare("v1.2.3+a", "v1.2.3+b"), is(equalTo(0)));
+    assertThat(VgoVersions.compare("garbage", "v0.0.1"), is(lessThan(0)));
+  }
+
+  @Test
+  public void semverOrder() {
+    List<String> versions = new ArrayList<>(
+        asList("v1.10.0", "v1.2.0", "v1.2.0-rc.1", "v0.9.0", "v2.0.0+incompatible"));
+
+    versions.sort(VgoVersions.SEMVER_ORDER);
+
+    assertThat(versions, contains("v0.9.0", "v1.2.0-rc.1", "v1.2.0", "v1.10.0", "v2.0.0+incompatible"));
+  }
+
+  @Test
+  public void isPseudoVersion() {
+    assertThat(VgoVersions.isPseudoVersion("v0.0.0-20180816102801-aeb5d9d5c4d8"), is(true));
+    assertThat(VgoVersions.isPseudoVersion("v1.2.4-0.20180816102801-aeb5d9d5c4d8"), is(true));
+    assertThat(VgoVersions.isPseudoVersion("v1.2.4-pre.0.20180816102801-aeb5d9d5c4d8"), is(true));
+    assertThat(VgoVersions.isPseudoVersion("v1.2.4-pre"), is(false));
+    assertThat(VgoVersions.isPseudoVersion("v1.2.4"), is(false));
+  }
+
+  @Test
+  public void latestPrefersReleases() {
+    assertThat(VgoVersions.latest(asList("v1.0.0", "v1.1.0-rc.1", "v0.0.0-20190101000000-abcdefabcdef", "v0.9.0")),
+        is(equalTo("v1.0.0")));
+  }
+
+  @Test
+  public void latestFallsBackToPrereleases() {
+    assertThat(VgoVersions.latest(asList("v1.1.0-rc.1", "v1.1.0-rc.2", "v1.2.0-0.20190101000000-abcdefabcdef")),
+        is(equalTo("v1.1.0-rc.2")));
+  }
+
+  @Test
+  public void latestFallsBackToPseudoVersions() {
+    assertThat(VgoVersions.latest(asList("v0.0.0-20190101000000-abcdefabcdef", "v0.0.0-20190202000000-abcdefabcdef")),
+        is(equalTo("v0.0.0-20190202000000-abcdefabcdef")));
+  }
+
+  @Test
+  public void upperCasePrereleases() {
+    assertThat(VgoVersions.compare("v1.0.0-RC1", "v1.0.0-RC2"), is(lessThan(0)));
+    assertThat(VgoVersions.latest(asList("v1.0.0-RC1", "v0.0.0-20190101000000-abcdefabcdef")),
+        is(equalTo("v1.0.0-RC1")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void compareRejectsEncodedVersions() {
+    VgoVersions.compare("v1.0.0-!r!c1", "v1.0.0");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void latestRejectsEncodedVersions() {
+    VgoVersions.latest(asList("v1.0.0-!r!c1", "v0.9.0"));
+  }
+
+  @Test
+  public void latestOfNothing() {
+    assertThat(VgoVersions.latest(emptyList()), is(nullValue()));
+    assertThat(VgoVersions.latest(asList("latest", "master")), is(nullValue()));
+  }
+}
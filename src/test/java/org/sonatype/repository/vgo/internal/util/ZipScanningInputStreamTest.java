@@ -0,0 +1,119 @@
+/*
+ * Sonatype Nexus (TM) Open Source Version
+ * Copyright (c) 2018-present Sonatype, Inc.
+ * All rights reserved. Includes the third-party code listed at http://links.sonatype.com/products/nexus/oss/attributions.
+ *
+ * This program and the accompanying materials are made available under the terms of the Eclipse Public License Version 1.0,
+ * which accompanies this distribution and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Sonatype Nexus (TM) Professional Version is available from Sonatype, Inc. "Sonatype" and "Sonatype Nexus" are trademarks
+ * of Sonatype, Inc. Apache Maven is a trademark of the Apache Software Foundation. M2eclipse is a trademark of the
+ * Eclipse Foundation. All other trademarks are the property of their respective owners.
+ */
+package org.sonatype.repository.vgo.internal.util;
+
+import java.io.InputStream;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ZipScanningInputStreamTest
+{
+  private static final String GO_MOD = "github.com/sonatype/example@v1.0.0/go.mod";
+
+  @Test
+  public void capturesModuleRootGoMod() throws Exception {
+    try (ZipEntryCapture capture = new ZipEntryCapture(GO_MOD, 1024)) {
+      byte[] passedThrough = scan("example.zip", capture);
+
+      assertThat(new String(content(capture), Charsets.UTF_8),
+          is(equalTo("module github.com/sonatype/example\n\nrequire github.com/jung-kurt/gofpdf v1.0.2\n")));
+      assertThat(passedThrough, is(equalTo(read("example.zip"))));
+    }
+  }
+
+  @Test
+  public void followsDataDescriptors() throws Exception {
+    try (ZipEntryCapture capture = new ZipEntryCapture("sonatype/example/go.mod", 1024)) {
+      try (ZipScanningInputStream in = new ZipScanningInputStream(getClass().getResourceAsStream("sonatype.zip"),
+          capture)) {
+        ByteStreams.exhaust(in);
+
+        assertThat(in.isScanned(), is(true));
+      }
+      assertThat(new String(content(capture), Charsets.UTF_8),
+          is(equalTo(new String(read("go.mod"), Charsets.UTF_8))));
+    }
+  }
+
+  @Test
+  public void entryNotFound() throws Exception {
+    try (ZipEntryCapture capture =
+             new ZipEntryCapture("github.com/sonatype/example@v1.0.0/does_not_exist.txt", 1024)) {
+      scan("example.zip", capture);
+
+      assertThat(capture.isCaptured(), is(false));
+      assertThat(capture.openStream(), is(nullValue()));
+    }
+  }
+
+  @Test
+  public void entryTooLarge() throws Exception {
+    try (ZipEntryCapture capture = new ZipEntryCapture(GO_MOD, 10)) {
+      scan("example.zip", capture);
+
+      assertThat(capture.isCaptured(), is(false));
+      assertThat(capture.openStream(), is(nullValue()));
+    }
+  }
+
+  @Test
+  public void capturedEntryHashAndSize() throws Exception {
+    try (ZipEntryCapture capture = new ZipEntryCapture(GO_MOD, 1024)) {
+      scan("example.zip", capture);
+
+      byte[] content = content(capture);
+      assertThat(capture.getSize(), is((long) content.length));
+      assertThat(capture.getSha256(), is(equalTo(Hashing.sha256().hashBytes(content))));
+    }
+  }
+
+  @Test
+  public void closeDiscardsCapturedEntry() throws Exception {
+    ZipEntryCapture capture = new ZipEntryCapture(GO_MOD, 1024);
+    scan("example.zip", capture);
+
+    capture.close();
+
+    assertThat(capture.isCaptured(), is(false));
+    assertThat(capture.openStream(), is(nullValue()));
+  }
+
+  private byte[] scan(final String zip, final ZipEntryCapture capture) throws Exception {
+    try (ZipScanningInputStream in = new ZipScanningInputStream(getClass().getResourceAsStream(zip), capture)) {
+      byte[] bytes = ByteStreams.toByteArray(in);
+
+      assertThat(in.isScanned(), is(true));
+      return bytes;
+    }
+  }
+
+  private byte[] content(final ZipEntryCapture capture) throws Exception {
+    try (InputStream in = capture.openStream()) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+
+  private byte[] read(final String resource) throws Exception {
+    try (InputStream in = getClass().getResourceAsStream(resource)) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+}